@@ -1,42 +1,89 @@
-package com.trevorBower.appointmentScheduler;
-
-import com.trevorBower.appointmentScheduler.helper.JDBC;
-import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
-import javafx.stage.Stage;
-
-import java.net.URL;
-import java.sql.SQLException;
-
-
-public class Main extends Application {
-
-    /**
-     * Opens login form
-     * @param primaryStage Stage for the login form
-     * @throws Exception If login form file not found
-     */
-    @Override
-    public void start(Stage primaryStage) throws Exception {
-        String fxmlPath = "/forms/Login.fxml";
-        URL fxmlUrl = getClass().getResource(fxmlPath);
-        FXMLLoader fxmlLoader = new FXMLLoader(fxmlUrl);
-        Parent root = fxmlLoader.load();
-        primaryStage.setTitle("User Login");
-        primaryStage.setScene(new Scene(root, 600, 400));
-        primaryStage.show();
-    }
-
-    /**
-     * Connects to SQL database, launches GUI and closes DB connection when GUI is closed
-     * @param args Main
-     * @throws SQLException If cannot connect to SQL database
-     */
-    public static void main(String[] args) throws SQLException {
-        JDBC.openConnection();
-        launch(args);
-        JDBC.closeConnection();
-    }
-}
+package com.trevorBower.appointmentScheduler;
+
+import com.trevorBower.appointmentScheduler.controller.Navigator;
+import com.trevorBower.appointmentScheduler.helper.CustomerSearchIndex;
+import com.trevorBower.appointmentScheduler.helper.DatabaseExecutor;
+import com.trevorBower.appointmentScheduler.helper.GeographyDictionary;
+import com.trevorBower.appointmentScheduler.helper.JDBC;
+import com.trevorBower.appointmentScheduler.helper.ReferenceDataCache;
+import com.trevorBower.appointmentScheduler.helper.StartupTimeline;
+import javafx.application.Application;
+import javafx.stage.Stage;
+
+import java.util.concurrent.CompletableFuture;
+
+
+public class Main extends Application {
+
+    // Background startup work begun in main(), before the login form exists
+    private static CompletableFuture<Void> database;
+    private static CompletableFuture<Void> warmCaches;
+
+    /**
+     * Opens login form, then parses the heaviest forms in the background while the user types
+     * @param primaryStage Stage every form is shown on
+     * @throws Exception If login form file not found
+     */
+    @Override
+    public void start(Stage primaryStage) throws Exception {
+        StartupTimeline.mark("JavaFX started");
+        Navigator.init(primaryStage);
+        Navigator.show(Navigator.Form.LOGIN);
+        Navigator.afterNextLayout(() -> StartupTimeline.mark("First frame (login form)"));
+
+        // Parse the next forms while the user logs in; their data loads start when each is first shown
+        CompletableFuture<Void> forms = CompletableFuture.allOf(
+                whenDone(Navigator.preload(Navigator.Form.MAIN), "Main form parsed"),
+                whenDone(Navigator.preload(Navigator.Form.ADD_APPOINTMENT), "Add appointment form parsed"));
+        CompletableFuture.allOf(database, warmCaches, forms).whenComplete((result, error) -> {
+            StartupTimeline.mark("Interactive (database, caches and forms ready)");
+            System.out.println(StartupTimeline.summary());
+        });
+    }
+
+    /**
+     * Opens the database and warms the caches in the background, launches GUI and closes DB connection when GUI is
+     * closed. Queries made before the pool is open wait for it.
+     * @param args Main
+     */
+    public static void main(String[] args) {
+        StartupTimeline.mark("main() entered");
+        database = whenDone(DatabaseExecutor.submit(() -> {
+            JDBC.openConnection();
+            return null;
+        }), "Connection pool open");
+        warmCaches = CompletableFuture.allOf(
+                // Countries and divisions, used by every customer form and report
+                whenDone(database.thenCompose(ready -> DatabaseExecutor.submit(() -> {
+                    GeographyDictionary.reload();
+                    return null;
+                })), "Geography loaded"),
+                // Contacts, users and customer IDs for the appointment forms
+                whenDone(database.thenCompose(ready -> DatabaseExecutor.submit(ReferenceDataCache::load)),
+                        "Reference data loaded"),
+                // Ready before the first customer search
+                whenDone(database.thenCompose(ready -> DatabaseExecutor.submit(() -> {
+                    CustomerSearchIndex.load();
+                    return null;
+                })), "Customer search index loaded"));
+        launch(args);
+        JDBC.closeConnection();
+    }
+
+    /**
+     * Marks a startup step on the timeline when it finishes. A failed step is logged and left to retry on first use.
+     * @param step Startup step
+     * @param milestone Milestone name
+     * @return Future completed, never exceptionally, when the step has finished
+     */
+    private static CompletableFuture<Void> whenDone(CompletableFuture<?> step, String milestone) {
+        return step.handle((result, error) -> {
+            if (error == null) {
+                StartupTimeline.mark(milestone);
+            } else {
+                System.out.println(milestone + " failed; retrying on first use: " + error);
+            }
+            return null;
+        });
+    }
+}
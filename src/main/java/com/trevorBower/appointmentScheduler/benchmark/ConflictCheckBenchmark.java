@@ -0,0 +1,162 @@
+package com.trevorBower.appointmentScheduler.benchmark;
+
+import com.trevorBower.appointmentScheduler.helper.AppointmentConflictIndex;
+import com.trevorBower.appointmentScheduler.helper.JDBC;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares overlap checks through the old OR query, the index-friendly SQL guard and AppointmentConflictIndex.
+ * Inserts synthetic appointments first, so run it against the embedded backend:
+ * java -Ddb.backend=h2 ... ConflictCheckBenchmark [appointments] [probes]
+ */
+public class ConflictCheckBenchmark {
+
+    private static final String oldSql = "SELECT COUNT(*) FROM appointments WHERE Customer_ID = ? AND "
+            + "((? >= Start AND ? < End) OR (? > Start AND ? <= End) OR (? <= End AND ? >= Start))";
+    private static final String guardSql = "SELECT COUNT(*) FROM appointments WHERE Customer_ID = ? AND Start < ? "
+            + "AND End > ? AND Appointment_ID <> ?";
+
+    public static void main(String[] args) throws SQLException {
+        int appointments = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int probes = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        JDBC.openConnection();
+        try {
+            int[] customerIds = loadCustomerIds();
+            LocalDateTime base = LocalDateTime.of(2030, 1, 1, 14, 0);
+            insertAppointments(appointments, customerIds, base);
+
+            long begin = System.nanoTime();
+            AppointmentConflictIndex.load();
+            System.out.printf("Index load: %.1f ms for %d appointments%n", (System.nanoTime() - begin) / 1e6,
+                    AppointmentConflictIndex.size());
+
+            // Probe random half hours across the generated range
+            Random random = new Random(42);
+            int slots = appointments / customerIds.length * 2;
+            List<LocalDateTime> starts = new ArrayList<>(probes);
+            List<Integer> customers = new ArrayList<>(probes);
+            for (int i = 0; i < probes; i++) {
+                starts.add(base.plusMinutes(30L * random.nextInt(slots)));
+                customers.add(customerIds[random.nextInt(customerIds.length)]);
+            }
+
+            int oldHits = 0;
+            int guardHits = 0;
+            int indexHits = 0;
+            long oldNanos;
+            long guardNanos;
+            long indexNanos;
+            try (Connection connection = JDBC.getConnection();
+                 PreparedStatement oldPs = connection.prepareStatement(oldSql);
+                 PreparedStatement guardPs = connection.prepareStatement(guardSql)) {
+                begin = System.nanoTime();
+                for (int i = 0; i < probes; i++) {
+                    LocalDateTime start = starts.get(i);
+                    LocalDateTime end = start.plusMinutes(30);
+                    oldPs.setInt(1, customers.get(i));
+                    oldPs.setObject(2, end);
+                    oldPs.setObject(3, start);
+                    oldPs.setObject(4, end);
+                    oldPs.setObject(5, start);
+                    oldPs.setObject(6, end);
+                    oldPs.setObject(7, start);
+                    oldHits += count(oldPs) > 0 ? 1 : 0;
+                }
+                oldNanos = System.nanoTime() - begin;
+
+                begin = System.nanoTime();
+                for (int i = 0; i < probes; i++) {
+                    LocalDateTime start = starts.get(i);
+                    guardPs.setInt(1, customers.get(i));
+                    guardPs.setObject(2, start.plusMinutes(30));
+                    guardPs.setObject(3, start);
+                    guardPs.setInt(4, -1);
+                    guardHits += count(guardPs) > 0 ? 1 : 0;
+                }
+                guardNanos = System.nanoTime() - begin;
+            }
+
+            begin = System.nanoTime();
+            for (int i = 0; i < probes; i++) {
+                LocalDateTime start = starts.get(i);
+                indexHits += AppointmentConflictIndex.findOverlap(customers.get(i), start, start.plusMinutes(30), -1)
+                        != -1 ? 1 : 0;
+            }
+            indexNanos = System.nanoTime() - begin;
+
+            System.out.printf("Probes: %d%n", probes);
+            System.out.printf("Old OR query:      %8.1f us/check (%d conflicts, closed intervals)%n",
+                    oldNanos / 1e3 / probes, oldHits);
+            System.out.printf("Range SQL guard:   %8.1f us/check (%d conflicts)%n", guardNanos / 1e3 / probes, guardHits);
+            System.out.printf("Conflict index:    %8.1f us/check (%d conflicts)%n", indexNanos / 1e3 / probes, indexHits);
+
+            deleteAppointments(base);
+        } finally {
+            JDBC.closeConnection();
+        }
+    }
+
+    private static int count(PreparedStatement ps) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static int[] loadCustomerIds() throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT Customer_ID FROM customers");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Gives each customer back-to-back 30 minute appointments every other half hour from the base time
+     */
+    private static void insertAppointments(int appointments, int[] customerIds, LocalDateTime base)
+            throws SQLException {
+        String sql = "INSERT INTO appointments (Title, Description, Location, Type, Start, End, Customer_ID, User_ID, "
+                + "Contact_ID) VALUES('Benchmark', 'Benchmark', 'Benchmark', 'Benchmark', ?, ?, ?, "
+                + "(SELECT MIN(User_ID) FROM users), (SELECT MIN(Contact_ID) FROM contacts))";
+        long begin = System.nanoTime();
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < appointments; i++) {
+                LocalDateTime start = base.plusHours(i / customerIds.length);
+                ps.setObject(1, start);
+                ps.setObject(2, start.plusMinutes(30));
+                ps.setInt(3, customerIds[i % customerIds.length]);
+                ps.addBatch();
+                if (i % 1000 == 999) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+            connection.commit();
+        }
+        System.out.printf("Inserted %d appointments in %.1f ms%n", appointments, (System.nanoTime() - begin) / 1e6);
+    }
+
+    private static void deleteAppointments(LocalDateTime base) throws SQLException {
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement("DELETE FROM appointments WHERE Start >= ?")) {
+            ps.setObject(1, base);
+            ps.executeUpdate();
+        }
+        AppointmentConflictIndex.invalidate();
+    }
+}
@@ -0,0 +1,126 @@
+package com.trevorBower.appointmentScheduler.benchmark;
+
+import com.trevorBower.appointmentScheduler.helper.JDBC;
+import com.trevorBower.appointmentScheduler.helper.ReportQuery;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Compares the old customer report (one customers query plus three lookups per customer) against the single
+ * joined, streamed ReportQuery.writeCustomerContacts as the customer count grows. The joined query should stay
+ * roughly flat per row. Inserts synthetic customers, so run it against the embedded backend:
+ * java -Ddb.backend=h2 ... CustomerReportBenchmark [customer counts...]
+ */
+public class CustomerReportBenchmark {
+
+    private static final String customerPrefix = "Benchmark Customer ";
+
+    public static void main(String[] args) throws SQLException, IOException {
+        int[] sizes = {1_000, 5_000, 20_000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        JDBC.openConnection();
+        try {
+            // Warm up both paths so the statement cache and JIT are settled before timing
+            insertCustomers(500);
+            perCustomerReport(new StringBuilder());
+            ReportQuery.writeCustomerContacts(new StringBuilder());
+
+            System.out.println("Fetch size: " + JDBC.getFetchSize());
+            System.out.printf("%10s %14s %14s %14s %14s%n", "Customers", "N+1 ms", "N+1 us/row", "Joined ms",
+                    "Joined us/row");
+            int inserted = 500;
+            for (int size : sizes) {
+                if (size > inserted) {
+                    insertCustomers(size - inserted);
+                    inserted = size;
+                }
+                long begin = System.nanoTime();
+                int rows = perCustomerReport(new StringBuilder());
+                long perCustomerNanos = System.nanoTime() - begin;
+
+                begin = System.nanoTime();
+                ReportQuery.writeCustomerContacts(new StringBuilder());
+                long joinedNanos = System.nanoTime() - begin;
+
+                System.out.printf("%10d %14.1f %14.2f %14.1f %14.2f%n", rows, perCustomerNanos / 1e6,
+                        perCustomerNanos / 1e3 / rows, joinedNanos / 1e6, joinedNanos / 1e3 / rows);
+            }
+
+            deleteCustomers();
+        } finally {
+            JDBC.closeConnection();
+        }
+    }
+
+    /**
+     * The report as it was built before: SELECT * FROM customers, then division, country ID and country name
+     * looked up separately for every row
+     */
+    private static int perCustomerReport(StringBuilder out) throws SQLException {
+        int rows = 0;
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT * FROM customers");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                int divisionId = rs.getInt("Division_ID");
+                String division = lookup(connection,
+                        "SELECT Division FROM first_level_divisions WHERE Division_ID = ?", divisionId);
+                int countryId = Integer.parseInt(lookup(connection,
+                        "SELECT Country_ID FROM first_level_divisions WHERE Division_ID = ?", divisionId));
+                String country = lookup(connection, "SELECT Country FROM countries WHERE Country_ID = ?", countryId);
+                out.append("Customer Name: ").append(rs.getString("Customer_Name"))
+                        .append(" | Full Address: ").append(rs.getString("Address"))
+                        .append(", ").append(division).append(", ").append(country)
+                        .append(", ").append(rs.getString("Postal_Code"))
+                        .append(" | Phone Number: ").append(rs.getString("Phone")).append("\n\n");
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static String lookup(Connection connection, String sql, int id) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static void insertCustomers(int count) throws SQLException {
+        String sql = "INSERT INTO customers (Customer_Name, Address, Postal_Code, Phone, Division_ID) " +
+                "VALUES(?, '1 Benchmark Way', '00000', '555-0100', " +
+                "(SELECT MIN(Division_ID) FROM first_level_divisions))";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                ps.setString(1, customerPrefix + i);
+                ps.addBatch();
+                if (i % 1000 == 999) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static void deleteCustomers() throws SQLException {
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement("DELETE FROM customers WHERE Customer_Name LIKE ?")) {
+            ps.setString(1, customerPrefix + "%");
+            ps.executeUpdate();
+        }
+    }
+}
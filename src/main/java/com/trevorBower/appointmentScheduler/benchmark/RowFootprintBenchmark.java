@@ -0,0 +1,80 @@
+package com.trevorBower.appointmentScheduler.benchmark;
+
+import com.trevorBower.appointmentScheduler.model.Appointment;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.lang.ref.Reference;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Compares heap used per appointments table row by the old ObservableList of ten Strings against the typed
+ * Appointment record. Rows are synthetic, with every String freshly created as a JDBC driver would.
+ * No database needed. Run with: java ... RowFootprintBenchmark [rows]
+ */
+public class RowFootprintBenchmark {
+
+    private static final String[] types = {"Planning Session", "De-Briefing", "Follow-up", "Consultation", "Review"};
+    private static final String[] contacts = {"Anika Costa", "Daniel Garcia", "Li Lee"};
+    private static final DateTimeFormatter timestampFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 14, 0);
+
+        long before = usedHeap();
+        ObservableList<ObservableList<String>> stringRows = FXCollections.observableArrayList();
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime start = base.plusMinutes(30L * i);
+            ObservableList<String> row = FXCollections.observableArrayList();
+            row.add(String.valueOf(i + 1));
+            row.add("Title " + i);
+            row.add("Description " + i);
+            row.add("Location " + i % 50);
+            row.add(new String(types[i % types.length]));
+            row.add(start.format(timestampFormat));
+            row.add(start.plusMinutes(30).format(timestampFormat));
+            row.add(String.valueOf(i % 1000 + 1));
+            row.add(String.valueOf(i % 2 + 1));
+            row.add(new String(contacts[i % contacts.length]));
+            stringRows.add(row);
+        }
+        long stringBytes = usedHeap() - before;
+        Reference.reachabilityFence(stringRows);
+        stringRows = null;
+
+        before = usedHeap();
+        ObservableList<Appointment> typedRows = FXCollections.observableArrayList();
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime start = base.plusMinutes(30L * i);
+            typedRows.add(new Appointment(i + 1, "Title " + i, "Description " + i, "Location " + i % 50,
+                    new String(types[i % types.length]), start, start.plusMinutes(30), i % 1000 + 1, i % 2 + 1,
+                    i % contacts.length + 1, new String(contacts[i % contacts.length])));
+        }
+        long typedBytes = usedHeap() - before;
+        Reference.reachabilityFence(typedRows);
+
+        System.out.printf("Rows: %d%n", rows);
+        System.out.printf("ObservableList<String> rows: %8.1f bytes/row (%.1f MB)%n", (double) stringBytes / rows,
+                stringBytes / 1e6);
+        System.out.printf("Appointment records:         %8.1f bytes/row (%.1f MB)%n", (double) typedBytes / rows,
+                typedBytes / 1e6);
+    }
+
+    /**
+     * @return Heap in use after asking for a few collections, so only live objects are counted
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,152 @@
+package com.trevorBower.appointmentScheduler.benchmark;
+
+import com.trevorBower.appointmentScheduler.helper.TimeConverter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+/**
+ * Compares time and heap allocated per UTC-to-system conversion by the old ZonedDateTime path against
+ * TimeConverter on epoch seconds. Allocation is read from the JVM's per-thread allocation counter (ThreadMXBean),
+ * so TimeConverter should show 0 bytes/op once the JIT has settled. The counter's method is looked up by reflection so the
+ * application module doesn't have to require jdk.management; on a JVM without it bytes/op reads NaN.
+ * Every result is first checked against ZonedDateTime, including times next to DST transitions. No database needed.
+ * Run with: java ... TimeConversionBenchmark [conversions]
+ */
+public class TimeConversionBenchmark {
+
+    private static final String[] checkedZones = {"America/New_York", "Europe/London", "Asia/Kolkata",
+            "Australia/Lord_Howe", "UTC"};
+    private static final int rounds = 5;
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private static final Method getThreadAllocatedBytes = findGetThreadAllocatedBytes();
+
+    public static void main(String[] args) {
+        int conversions = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        checkAgainstZonedDateTime(200_000);
+
+        // Appointment starts spread over March, as a table page would show; crosses a DST change in North America
+        long base = LocalDateTime.of(2030, 3, 1, 14, 0).toEpochSecond(ZoneOffset.UTC);
+        long[] utcStarts = new long[4096];
+        LocalDateTime[] utcDateTimes = new LocalDateTime[utcStarts.length];
+        Random random = new Random(17);
+        for (int i = 0; i < utcStarts.length; i++) {
+            utcStarts[i] = base + random.nextInt(31 * 24 * 4) * 900L;
+            utcDateTimes[i] = LocalDateTime.ofEpochSecond(utcStarts[i], 0, ZoneOffset.UTC);
+        }
+
+        TimeConverter system = TimeConverter.system();
+        System.out.printf("Zone: %s, conversions per round: %d%n", system.getZoneId(), conversions);
+
+        for (int round = 1; round <= rounds; round++) {
+            long sink = 0;
+            long bytesBefore = allocatedBytes();
+            long begin = System.nanoTime();
+            for (int i = 0; i < conversions; i++) {
+                sink += oldConvertUtcTimeToSystem(utcDateTimes[i & (utcDateTimes.length - 1)]).getHour();
+            }
+            long oldNanos = System.nanoTime() - begin;
+            long oldBytes = allocatedBytes() - bytesBefore;
+
+            bytesBefore = allocatedBytes();
+            begin = System.nanoTime();
+            for (int i = 0; i < conversions; i++) {
+                sink += system.toLocal(utcStarts[i & (utcStarts.length - 1)]);
+            }
+            long newNanos = System.nanoTime() - begin;
+            long newBytes = allocatedBytes() - bytesBefore;
+
+            System.out.printf("Round %d: ZonedDateTime %6.1f ns/op %6.1f bytes/op | TimeConverter %5.1f ns/op "
+                            + "%5.2f bytes/op (%d)%n", round, (double) oldNanos / conversions,
+                    perOp(oldBytes, conversions), (double) newNanos / conversions,
+                    perOp(newBytes, conversions), sink & 1);
+        }
+    }
+
+    /**
+     * Divides a measured byte count by the number of conversions, giving NaN if allocation couldn't be read
+     */
+    private static double perOp(long bytes, int conversions) {
+        return getThreadAllocatedBytes == null ? Double.NaN : (double) bytes / conversions;
+    }
+
+    /**
+     * Reads the bytes allocated so far by the current thread
+     * @return Bytes allocated, or -1 if the JVM has no per-thread allocation counter
+     */
+    private static long allocatedBytes() {
+        if (getThreadAllocatedBytes == null) {
+            return -1;
+        }
+        try {
+            return (long) getThreadAllocatedBytes.invoke(threads, Thread.currentThread().getId());
+        } catch (ReflectiveOperationException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Looks up getThreadAllocatedBytes(long) on the JDK's extended ThreadMXBean
+     * @return The method, or null if the JVM doesn't provide it
+     */
+    private static Method findGetThreadAllocatedBytes() {
+        try {
+            Class<?> extended = Class.forName("com.sun.management.ThreadMXBean");
+            return extended.isInstance(threads) ? extended.getMethod("getThreadAllocatedBytes", long.class) : null;
+        } catch (ReflectiveOperationException e) {
+            return null;  // jdk.management not present
+        }
+    }
+
+    /**
+     * Converts random instants both ways in several zones and fails if any differs from ZonedDateTime
+     */
+    private static void checkAgainstZonedDateTime(int samples) {
+        Random random = new Random(42);
+        long from = LocalDateTime.of(1990, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        long span = LocalDateTime.of(2060, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC) - from;
+        for (String zone : checkedZones) {
+            ZoneId zoneId = ZoneId.of(zone);
+            TimeConverter converter = TimeConverter.forZone(zoneId);
+            for (int i = 0; i < samples; i++) {
+                // Every fourth sample lands within an hour of a quarter hour boundary near 01:00-03:00 local,
+                // where DST transitions happen
+                long second = from + (long) (random.nextDouble() * span);
+                if (i % 4 == 0) {
+                    second = second - Math.floorMod(second, 86_400) + 3600 + random.nextInt(4) * 1800;
+                }
+                LocalDateTime utcDateTime = LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC);
+                LocalDateTime expectedLocal = utcDateTime.atZone(ZoneOffset.UTC).withZoneSameInstant(zoneId)
+                        .toLocalDateTime();
+                long local = converter.toLocal(second);
+                if (local != expectedLocal.toEpochSecond(ZoneOffset.UTC)) {
+                    throw new IllegalStateException(zone + ": toLocal(" + utcDateTime + ") gave "
+                            + LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC) + ", expected " + expectedLocal);
+                }
+                // Read the same wall clock time back as local, which also covers gap and overlap times
+                long expectedUtc = utcDateTime.atZone(zoneId).toEpochSecond();
+                if (converter.toUtc(second) != expectedUtc) {
+                    throw new IllegalStateException(zone + ": toUtc(" + utcDateTime + ") gave "
+                            + converter.toUtc(second) + ", expected " + expectedUtc);
+                }
+            }
+        }
+        System.out.println("Checked " + samples * checkedZones.length + " conversions each way against ZonedDateTime");
+    }
+
+    /**
+     * ExtraMethods.convertUtcTimeToSystem as it was before TimeConverter
+     */
+    private static LocalDateTime oldConvertUtcTimeToSystem(LocalDateTime utcDateTime) {
+        ZoneId systemDefaultZone = ZoneId.systemDefault();
+        ZonedDateTime systemDateTime = utcDateTime.atZone(ZoneId.of("UTC")).withZoneSameInstant(systemDefaultZone);
+        return systemDateTime.toLocalDateTime();
+    }
+}
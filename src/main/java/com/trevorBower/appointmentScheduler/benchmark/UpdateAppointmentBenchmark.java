@@ -0,0 +1,88 @@
+package com.trevorBower.appointmentScheduler.benchmark;
+
+import com.trevorBower.appointmentScheduler.helper.JDBC;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import static com.trevorBower.appointmentScheduler.helper.AppointmentQuery.*;
+
+/**
+ * Compares latency of the old one-UPDATE-per-column appointment edit against the single transactional
+ * updateAppointmentAll. Run with: java ... UpdateAppointmentBenchmark [iterations]
+ */
+public class UpdateAppointmentBenchmark {
+
+    public static void main(String[] args) throws SQLException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        JDBC.openConnection();
+        try {
+            int[] ids = firstReferenceIds();
+            LocalDateTime start = LocalDateTime.now().plusYears(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+            int appointmentId = insertAppointment("Benchmark", "Benchmark", "Benchmark", "Benchmark", start,
+                    start.plusHours(1), ids[0], ids[1], ids[2]).getAppointmentId();
+
+            // Warm up both paths so the statement cache and JIT are settled before timing
+            for (int i = 0; i < Math.min(50, iterations); i++) {
+                perColumnUpdate(appointmentId, i, start, ids);
+                updateAppointmentAll(appointmentId, "Title " + i, "Description " + i, "Location " + i, "Type " + i,
+                        start, start.plusHours(1), ids[0], ids[1], ids[2]);
+            }
+
+            long perColumnNanos = 0;
+            long singleNanos = 0;
+            for (int i = 0; i < iterations; i++) {
+                long begin = System.nanoTime();
+                perColumnUpdate(appointmentId, i, start, ids);
+                perColumnNanos += System.nanoTime() - begin;
+
+                begin = System.nanoTime();
+                updateAppointmentAll(appointmentId, "Title " + i, "Description " + i, "Location " + i, "Type " + i,
+                        start, start.plusHours(1), ids[0], ids[1], ids[2]);
+                singleNanos += System.nanoTime() - begin;
+            }
+
+            deleteAppointment(appointmentId);
+            System.out.printf("Iterations: %d%n", iterations);
+            System.out.printf("Per-column updates (9 statements, autocommit): %.3f ms/edit%n",
+                    perColumnNanos / 1_000_000.0 / iterations);
+            System.out.printf("updateAppointmentAll (1 statement, 1 transaction, returns row): %.3f ms/edit%n",
+                    singleNanos / 1_000_000.0 / iterations);
+            System.out.println(JDBC.getPool());
+        } finally {
+            JDBC.closeConnection();
+        }
+    }
+
+    /**
+     * Old updateAppointmentAll behavior: one autocommitted UPDATE per column
+     */
+    private static void perColumnUpdate(int appointmentId, int i, LocalDateTime start, int[] ids) throws SQLException {
+        updateAppointmentTitle(appointmentId, "Title " + i);
+        updateAppointmentDescription(appointmentId, "Description " + i);
+        updateAppointmentLocation(appointmentId, "Location " + i);
+        updateAppointmentType(appointmentId, "Type " + i);
+        updateAppointmentStart(appointmentId, start);
+        updateAppointmentEnd(appointmentId, start.plusHours(1));
+        updateAppointmentCustomerId(appointmentId, ids[0]);
+        updateAppointmentUserId(appointmentId, ids[1]);
+        updateAppointmentContactId(appointmentId, ids[2]);
+    }
+
+    /**
+     * @return Existing customer, user and contact IDs to satisfy the appointment foreign keys
+     */
+    private static int[] firstReferenceIds() throws SQLException {
+        String sql = "SELECT (SELECT MIN(Customer_ID) FROM customers), (SELECT MIN(User_ID) FROM users), "
+                + "(SELECT MIN(Contact_ID) FROM contacts)";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return new int[]{rs.getInt(1), rs.getInt(2), rs.getInt(3)};
+        }
+    }
+}
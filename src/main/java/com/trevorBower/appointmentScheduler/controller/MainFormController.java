@@ -1,541 +1,624 @@
-package com.trevorBower.appointmentScheduler.controller;
-
-import com.trevorBower.appointmentScheduler.helper.JDBC;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
-import javafx.scene.control.*;
-import javafx.scene.text.Text;
-import javafx.stage.Stage;
-
-import java.io.IOException;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.time.*;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.Optional;
-
-import static com.trevorBower.appointmentScheduler.helper.AppointmentQuery.*;
-import static com.trevorBower.appointmentScheduler.helper.CustomerQuery.deleteCustomer;
-import static com.trevorBower.appointmentScheduler.helper.ExtraMethods.convertUtcTimeToSystem;
-
-public class MainFormController {
-
-    // Initialize User ID (Established during login)
-    public static int currentUserId;
-
-    // Initialize lists for table data
-    private ObservableList<ObservableList> allAppointments = FXCollections.observableArrayList();
-    private ObservableList<ObservableList> allCustomers = FXCollections.observableArrayList();
-
-    // Text
-    @FXML
-    private Text appointmentsText;
-
-    @FXML
-    private Text customersText;
-
-    @FXML
-    private Text filtersText;
-
-    // Radio Buttons
-    @FXML
-    private RadioButton allAppointmentsRadio;
-
-    @FXML
-    private RadioButton currentMonthRadio;
-
-    @FXML
-    private RadioButton currentWeekRadio;
-
-    // Buttons
-    @FXML
-    private Button addAppointmentButton;
-
-    @FXML
-    private Button updateAppointmentButton;
-
-    @FXML
-    private Button deleteAppointmentButton;
-
-    @FXML
-    private Button addCustomerButton;
-
-    @FXML
-    private Button updateCustomerButton;
-
-    @FXML
-    private Button deleteCustomerButton;
-
-    @FXML
-    private Button reportsButton;
-
-    @FXML
-    private Button logoutButton;
-
-    // Tables
-    @FXML
-    private TableView<ObservableList> appointmentsTable;
-
-    @FXML
-    private TableView<ObservableList> customersTable;
-
-
-    // Appointment table columns
-    @FXML
-    private TableColumn<ObservableList<String>, String> apptIdCol;
-    @FXML
-    private TableColumn<ObservableList<String>, String> apptTitleCol;
-    @FXML
-    private TableColumn<ObservableList<String>, String> apptDescriptionCol;
-    @FXML
-    private TableColumn<ObservableList<String>, String> apptLocationCol;
-    @FXML
-    private TableColumn<ObservableList<String>, String> apptContactCol;
-    @FXML
-    private TableColumn<ObservableList<String>, String> apptTypeCol;
-    @FXML
-    private TableColumn<ObservableList<String>, String> apptStartCol;
-    @FXML
-    private TableColumn<ObservableList<String>, String> apptEndCol;
-    @FXML
-    private TableColumn<ObservableList<String>, String> apptCustomerIdCol;
-    @FXML
-    private TableColumn<ObservableList<String>, String> apptUserIdCol;
-
-    // Customer table columns
-    @FXML
-    private TableColumn<ObservableList<String>, String> custIdCol;
-
-    @FXML
-    private TableColumn<ObservableList<String>, String> custNameCol;
-
-    @FXML
-    private TableColumn<ObservableList<String>, String> custAddressCol;
-
-    @FXML
-    private TableColumn<ObservableList<String>, String> custStateCol;
-
-    @FXML
-    private TableColumn<ObservableList<String>, String> custPostalCol;
-
-    @FXML
-    private TableColumn<ObservableList<String>, String> custPhoneCol;
-
-
-    /**
-     * Initializes form to specifications, sets default values, and configures table views
-     */
-    @FXML
-    private void initialize() {
-        buildAllAppointmentsData();
-        buildCustomerData();
-        allAppointmentsRadio.setSelected(true);
-    }
-
-    /**
-     * Displays all specified appointments data from SQL database (Default option)
-     * Lambdas used here to keep code concise and efficient
-     * @return All appointments data from SQL database to be used in other table view configurations
-     */
-    public ObservableList<ObservableList> buildAllAppointmentsData() {
-        // Clear existing table view
-        appointmentsTable.getItems().clear();
-
-        // Clear previous appointments data
-        allAppointments.clear();
-
-        // Config raw value table columns  *Lambdas
-        apptIdCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(0)));
-        apptTitleCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(1)));
-        apptDescriptionCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(2)));
-        apptLocationCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(3)));
-        apptTypeCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(4)));
-        apptCustomerIdCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(7)));
-        apptUserIdCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(8)));
-        apptContactCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(9)));
-
-        // Convert start and end time from UTC to system default time to display in tableview
-        apptStartCol.setCellValueFactory(cellData -> {
-            String utcDateTime = cellData.getValue().get(5);
-            //System.out.println(utcDateTime);
-            LocalDateTime systemDateTime = convertUtcTimeToSystem(LocalDateTime.parse(utcDateTime.replace(" ", "T")));
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            String formattedTime = systemDateTime.format(formatter);
-            return new SimpleStringProperty(formattedTime);
-                });
-        apptEndCol.setCellValueFactory(cellData -> {
-            String utcDateTime = cellData.getValue().get(6);
-            //System.out.println(utcDateTime);
-            LocalDateTime systemDateTime = convertUtcTimeToSystem(LocalDateTime.parse(utcDateTime.replace(" ", "T")));
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            String formattedTime = systemDateTime.format(formatter);
-            return new SimpleStringProperty(formattedTime);
-        });
-
-        try {
-            // Select appropriate appointment values in "appointments" and "contacts"
-            String appointmentTableQuery = "SELECT c.Appointment_ID, c.Title, c.Description, c.Location, c.Type, " +
-                    "c.Start, c.End, c.Customer_ID, c.User_ID, d.Contact_Name FROM appointments c " // Select statement
-                    + "JOIN contacts d ON c.Contact_ID = d.Contact_ID " // Join table to get contact info
-                    + "ORDER BY c.Appointment_ID";
-            PreparedStatement psAppointments = JDBC.connection.prepareStatement(appointmentTableQuery);
-            ResultSet rsAppointments = psAppointments.executeQuery();
-
-            // Add data to observable list
-            while (rsAppointments.next()) {
-                ObservableList<String> row = FXCollections.observableArrayList();
-                for (int i = 1; i <= rsAppointments.getMetaData().getColumnCount(); i++) {
-                    row.add(rsAppointments.getString(i));
-                }
-                allAppointments.add(row);
-            }
-
-            // Set table view
-            appointmentsTable.setItems(allAppointments);
-            return allAppointments;
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
-
-
-    /**
-     * Populates appointments table view with only appointments in the current month
-     */
-    public void buildCurrentMonthAppointmentsData() {
-        // Clear existing table view
-        appointmentsTable.getItems().clear();
-
-        // Get current month
-        YearMonth currentYearMonth = YearMonth.now();
-        Month currentMonth = currentYearMonth.getMonth();
-
-        // Create a new list to store filtered appointments
-        ObservableList filteredAppointments = FXCollections.observableArrayList();
-
-        // Iterate results of buildAllAppointmentsData() to filter appointments for the current month
-        for (ObservableList<String> appointment : buildAllAppointmentsData()) {
-            // Get startDateTime string in UTC time zone from appointments
-            String startDateTimeStringUtc = appointment.get(5);
-            // Reformat and parse startDateTimeStringUtc to convert to LocalDateTime value
-            LocalDateTime startDateTimeUtc = LocalDateTime.parse(startDateTimeStringUtc.replace(" ", "T"));
-            // Convert from UTC to system default time
-            LocalDateTime startDateTimeSystem = convertUtcTimeToSystem(startDateTimeUtc);
-            // If appointment start date month in system default time matches the current month...
-            if (startDateTimeSystem.getMonth().equals(currentMonth)) {
-                // Add appointment to the filtered list
-                filteredAppointments.add(appointment);
-            }
-        }
-
-        // Set table view
-        appointmentsTable.setItems(filteredAppointments);
-    }
-
-
-    /**
-     * Populates appointments table view with only appointments in the current week
-     */
-    public void buildCurrentWeekAppointmentsData() {
-        // Clear existing table view
-        appointmentsTable.getItems().clear();
-
-        // Get current week (Assumes Monday is the first day of the week)
-        LocalDate today = LocalDate.now();
-        LocalDate currentWeekFirstDay = today.with(DayOfWeek.MONDAY);
-        LocalDate currentWeekLastDay = today.with(DayOfWeek.SUNDAY);
-
-        // Create a new list to store filtered appointments
-        ObservableList filteredAppointments = FXCollections.observableArrayList();
-
-        // Iterate results of buildAllAppointmentsData() to filter appointments for the current month
-        for (ObservableList<String> appointment : buildAllAppointmentsData()) {
-            // Get startDateTime string in UTC time zone from appointments
-            String startDateTimeStringUtc = appointment.get(5);
-            // Reformat and parse startDateTimeStringUtc to convert to LocalDateTime value
-            LocalDateTime startDateTimeUtc = LocalDateTime.parse(startDateTimeStringUtc.replace(" ", "T"));
-            // Convert from UTC to system default time
-            LocalDateTime startDateTimeSystem = convertUtcTimeToSystem(startDateTimeUtc);
-            // If appointment start date is in the current week...
-            if (startDateTimeSystem.toLocalDate().isAfter(currentWeekFirstDay.minusDays(1)) // On or after first day
-            && startDateTimeSystem.toLocalDate().isBefore(currentWeekLastDay.plusDays(1))) { // On or before last day
-                // Add appointment to the filtered list
-                filteredAppointments.add(appointment);
-            }
-        }
-
-        // Set table view
-        appointmentsTable.setItems(filteredAppointments);
-    }
-
-
-    /**
-     * Populates customer table view with all specified customer data
-     * Lambdas used here to keep code concise and efficient
-     */
-    public void buildCustomerData() {
-        // Clear existing data
-        customersTable.getItems().clear();
-
-        // Config table columns  *Lambdas
-        custIdCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(0)));
-        custNameCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(1)));
-        custAddressCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(2)));
-        custPostalCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(3)));
-        custPhoneCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(4)));
-        custStateCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get(5)));
-
-        try {
-            // Select appropriate appointment values in "customers" and "first_level_divisions"
-            String customerTableQuery = "SELECT c.Customer_ID, c.Customer_Name, c.Address, c.Postal_Code, c.Phone, d.Division " +
-                    "FROM customers c " +
-                    "JOIN first_level_divisions d ON c.Division_ID = d.Division_ID " +
-                    "ORDER BY c.Customer_ID";
-            PreparedStatement psCustomers = JDBC.connection.prepareStatement(customerTableQuery);
-            ResultSet rsCustomers = psCustomers.executeQuery();
-
-            // Add data to observable list
-            while (rsCustomers.next()) {
-                ObservableList<String> row = FXCollections.observableArrayList();
-                for (int i = 1; i <= rsCustomers.getMetaData().getColumnCount(); i++) {
-                    row.add(rsCustomers.getString(i));
-                }
-                allCustomers.add(row);
-            }
-
-            // Set table view
-            customersTable.setItems(allCustomers);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
-
-    /**
-     * Sets current userId from login
-     * @param userId
-     */
-    public static void setCurrentUserId(int userId) {
-        currentUserId = userId;
-    }
-
-
-    /**
-     * Switches to add customer form
-     * @throws IOException Add customer form not found
-     */
-    public void switchToAddCustomer() throws IOException {
-        // Switch to addCustomer form
-        Parent root = FXMLLoader.load(getClass().getResource("/main/resources/addCustomer.fxml"));
-        Stage stage = new Stage();
-        Scene scene = new Scene(root);
-        stage.setScene(scene);
-        stage.show();
-        // Close main form
-        Stage mainStage = (Stage) logoutButton.getScene().getWindow();
-        mainStage.close();
-    }
-
-    /**
-     * Switches to modify customer form
-     * @throws IOException Modify customer form not found
-     * @throws SQLException SQL query fails
-     */
-    public void switchToModifyCustomer() throws IOException, SQLException {
-        if (customersTable.getSelectionModel().getSelectedItem() == null) { // If a customer is not selected
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setTitle(null);
-            alert.setContentText("Please select a customer to modify.");
-            alert.showAndWait();
-        } else {  // If a customer is selected, the Modify Customer form opens with text fields populated with
-            // appropriate values for the customer
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/main/resources/modifyCustomer.fxml"));
-            Parent root = loader.load();
-            ModifyCustomerController controller = loader.getController(); // Retrieves data from ModifyCustomer Controller to
-            // enable fetchCustomerValues method
-
-            // Populate the form with existing values
-            ObservableList<Object> selectedCustomer = customersTable.getSelectionModel().getSelectedItem();
-            controller.fetchCustomerValues(selectedCustomer);
-
-            Stage stage = new Stage();
-            Scene scene = new Scene(root);
-            stage.setScene(scene);
-            stage.show();
-
-            // Close main form
-            Stage mainStage = (Stage) logoutButton.getScene().getWindow();
-            mainStage.close();
-        }
-    }
-
-
-    /**
-     * Deletes selected customer from SQL database after checks and user confirmation then refreshes table views
-     * @throws SQLException SQL query fails
-     */
-    public void deleteSelectedCustomer() throws SQLException {
-        ObservableList<String> selectedCustomer = customersTable.getSelectionModel().getSelectedItem();
-        if (selectedCustomer == null) { // If a customer is not selected
-            Alert alertNoSelection = new Alert(Alert.AlertType.ERROR);
-            alertNoSelection.setTitle(null);
-            alertNoSelection.setContentText("Please select a customer to delete.");
-            alertNoSelection.showAndWait();
-        } else {
-            // Confirmation of deletion required before customer is deleted
-            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
-            confirm.setTitle("Confirmation");
-            confirm.setContentText("Are you sure you want to delete the selected customer?");
-            Optional<ButtonType> result = confirm.showAndWait();
-            if (result.get() == ButtonType.OK) { // If user confirms...
-                String customerIdString = selectedCustomer.get(0);
-                int customerId = Integer.parseInt(customerIdString);
-                // Check to make sure customer has no appointments
-                List<Integer> appointmentList = getAppointmentIdsByCustomerId(customerId);
-                if (!appointmentList.isEmpty()) {  // If customer has appointments
-                    // Display error
-                    Alert alertAppointments = new Alert(Alert.AlertType.ERROR);
-                    alertAppointments.setTitle(null);
-                    alertAppointments.setContentText("Cannot delete customer that currently has appointments.");
-                    alertAppointments.showAndWait();
-                } else {
-                    deleteCustomer(customerId); // ...the customer is deleted...
-                    buildCustomerData(); // ...and customersTable is updated.
-                    Alert deleted = new Alert(Alert.AlertType.INFORMATION);
-                    deleted.setTitle("Confirmation");
-                    deleted.setContentText("Customer successfully deleted.");
-                    deleted.showAndWait();
-                }
-            }
-        }
-    }
-
-
-    /**
-     * Deletes selected appointment from SQL database after user confirmation then refreshes table views
-     * @throws SQLException SQL query fails
-     */
-    public void deleteSelectedAppointment() throws SQLException {
-        ObservableList<String> selectedAppointment = appointmentsTable.getSelectionModel().getSelectedItem();
-        if (selectedAppointment == null) { // If an appointment is not selected
-            Alert alertNoSelection = new Alert(Alert.AlertType.ERROR);
-            alertNoSelection.setTitle(null);
-            alertNoSelection.setContentText("Please select an appointment to delete.");
-            alertNoSelection.showAndWait();
-        } else {
-            // Confirmation of deletion required before appointment is deleted
-            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
-            confirm.setTitle("Confirmation");
-            confirm.setContentText("Are you sure you want to delete the selected appointment?");
-            Optional<ButtonType> result = confirm.showAndWait();
-            if (result.get() == ButtonType.OK) { // If user confirms...
-                String appointmentIdString = selectedAppointment.get(0);
-                String appointmentTypeString = selectedAppointment.get(4);
-                int appointmentId = Integer.parseInt(appointmentIdString);
-                deleteAppointment(appointmentId); // ...the appointment is deleted...
-                buildAllAppointmentsData(); // ...and appointmentsTable is updated.
-                allAppointmentsRadio.setSelected(true);
-                Alert deleted = new Alert(Alert.AlertType.INFORMATION);
-                deleted.setTitle("Confirmation");
-                deleted.setContentText("Appointment with ID: " + appointmentIdString + ", Type: " +
-                        appointmentTypeString + " successfully deleted.");
-                deleted.showAndWait();
-            }
-        }
-    }
-
-
-    /**
-     * Switches to add appointment form
-     * @throws IOException Add appointment form not found
-     */
-    public void switchToAddAppointment() throws IOException {
-        // Switch to addAppointment form
-        Parent root = FXMLLoader.load(getClass().getResource("/main/resources/addAppointment.fxml"));
-        Stage stage = new Stage();
-        Scene scene = new Scene(root);
-        stage.setScene(scene);
-        stage.show();
-        // Close main form
-        Stage mainStage = (Stage) logoutButton.getScene().getWindow();
-        mainStage.close();
-    }
-
-    /**
-     * Switches to modify appointment form
-     * @throws IOException Modify appointment form not found
-     * @throws SQLException SQL query fails
-     */
-    public void switchToModifyAppointment() throws IOException, SQLException {
-        if (appointmentsTable.getSelectionModel().getSelectedItem() == null) { // If an appointment is not selected
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setTitle(null);
-            alert.setContentText("Please select an appointment to modify.");
-            alert.showAndWait();
-        } else {  // If an appointment is selected, the Modify Appointment form opens with text fields populated with
-            // appropriate values for the appointment
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/main/resources/modifyAppointment.fxml"));
-            Parent root = loader.load();
-            ModifyAppointmentController controller = loader.getController(); // Retrieves data from ModifyAppointment controller
-            // to enable fetchCustomerValues method
-
-            // Populate the form with existing values
-            ObservableList<Object> selectedAppointment = appointmentsTable.getSelectionModel().getSelectedItem();
-            controller.fetchAppointmentValues(selectedAppointment);
-
-            Stage stage = new Stage();
-            Scene scene = new Scene(root);
-            stage.setScene(scene);
-            stage.show();
-
-            // Close main form
-            Stage mainStage = (Stage) logoutButton.getScene().getWindow();
-            mainStage.close();
-        }
-
-    }
-
-
-    /**
-     * Switches to reports form
-     * @throws IOException Reports form not found
-     */
-    public void switchToReports() throws IOException {
-        // Switch to reports form
-        Parent root = FXMLLoader.load(getClass().getResource("/main/resources/reports.fxml"));
-        Stage stage = new Stage();
-        Scene scene = new Scene(root);
-        stage.setScene(scene);
-        stage.show();
-        // Close main form
-        Stage mainStage = (Stage) logoutButton.getScene().getWindow();
-        mainStage.close();
-    }
-
-
-    /**
-     * Returns to login form
-     * @throws IOException Login form not found
-     */
-    @FXML
-    void logout() throws IOException {
-        // Switch to login form
-        Parent root = FXMLLoader.load(getClass().getResource("/main/resources/login.fxml"));
-        Stage stage = new Stage();
-        Scene scene = new Scene(root);
-        stage.setScene(scene);
-        stage.show();
-        // Close main form
-        Stage mainStage = (Stage) logoutButton.getScene().getWindow();
-        mainStage.close();
-    }
-}
+package com.trevorBower.appointmentScheduler.controller;
+
+import com.trevorBower.appointmentScheduler.helper.AppointmentQuery;
+import com.trevorBower.appointmentScheduler.helper.ChangeFeed;
+import com.trevorBower.appointmentScheduler.helper.DatabaseExecutor;
+import com.trevorBower.appointmentScheduler.helper.CustomerQuery;
+import com.trevorBower.appointmentScheduler.helper.CustomerSearchIndex;
+import com.trevorBower.appointmentScheduler.helper.PagedList;
+import com.trevorBower.appointmentScheduler.helper.ReminderService;
+import com.trevorBower.appointmentScheduler.model.Appointment;
+import com.trevorBower.appointmentScheduler.model.Customer;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.scene.text.Text;
+import javafx.util.Callback;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static com.trevorBower.appointmentScheduler.helper.AppointmentQuery.*;
+import static com.trevorBower.appointmentScheduler.helper.CustomerQuery.deleteCustomer;
+
+public class MainFormController implements Navigator.Loadable {
+
+    // Initialize User ID (Established during login)
+    public static int currentUserId;
+
+    // Reminders of upcoming appointments for the logged-in user, from login until logout
+    private static ReminderService.Session reminders;
+
+    private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int maxSearchResults = 500;
+
+    // Initialize lists for table data
+    private ObservableList<Appointment> allAppointments = FXCollections.observableArrayList();
+    private ObservableList<Customer> allCustomers = FXCollections.observableArrayList();
+
+    // Background loads; a new request for a table cancels the one still running
+    private final DatabaseExecutor.LatestRequest appointmentRequests = new DatabaseExecutor.LatestRequest();
+    private final DatabaseExecutor.LatestRequest customerRequests = new DatabaseExecutor.LatestRequest();
+
+    // Current view of each table, to patch changed rows into and to re-run when a patch isn't possible
+    private Runnable appointmentView = this::buildAllAppointmentsData;
+    private Predicate<Appointment> appointmentFilter = appointment -> true;
+    private Runnable customerView = this::buildCustomerData;
+    private Predicate<Customer> customerFilter = customer -> true;
+
+
+    // Text
+    @FXML
+    private Text appointmentsText;
+
+    @FXML
+    private Text customersText;
+
+    @FXML
+    private Text filtersText;
+
+    // Search
+    @FXML
+    private TextField customerSearchField;
+
+    // Radio Buttons
+    @FXML
+    private RadioButton allAppointmentsRadio;
+
+    @FXML
+    private RadioButton currentMonthRadio;
+
+    @FXML
+    private RadioButton currentWeekRadio;
+
+    // Buttons
+    @FXML
+    private Button addAppointmentButton;
+
+    @FXML
+    private Button updateAppointmentButton;
+
+    @FXML
+    private Button deleteAppointmentButton;
+
+    @FXML
+    private Button addCustomerButton;
+
+    @FXML
+    private Button updateCustomerButton;
+
+    @FXML
+    private Button deleteCustomerButton;
+
+    @FXML
+    private Button reportsButton;
+
+    @FXML
+    private Button logoutButton;
+
+    // Tables
+    @FXML
+    private TableView<Appointment> appointmentsTable;
+
+    @FXML
+    private TableView<Customer> customersTable;
+
+
+    // Appointment table columns
+    @FXML
+    private TableColumn<Appointment, String> apptIdCol;
+    @FXML
+    private TableColumn<Appointment, String> apptTitleCol;
+    @FXML
+    private TableColumn<Appointment, String> apptDescriptionCol;
+    @FXML
+    private TableColumn<Appointment, String> apptLocationCol;
+    @FXML
+    private TableColumn<Appointment, String> apptContactCol;
+    @FXML
+    private TableColumn<Appointment, String> apptTypeCol;
+    @FXML
+    private TableColumn<Appointment, String> apptStartCol;
+    @FXML
+    private TableColumn<Appointment, String> apptEndCol;
+    @FXML
+    private TableColumn<Appointment, String> apptCustomerIdCol;
+    @FXML
+    private TableColumn<Appointment, String> apptUserIdCol;
+
+    // Customer table columns
+    @FXML
+    private TableColumn<Customer, String> custIdCol;
+
+    @FXML
+    private TableColumn<Customer, String> custNameCol;
+
+    @FXML
+    private TableColumn<Customer, String> custAddressCol;
+
+    @FXML
+    private TableColumn<Customer, String> custStateCol;
+
+    @FXML
+    private TableColumn<Customer, String> custPostalCol;
+
+    @FXML
+    private TableColumn<Customer, String> custPhoneCol;
+
+
+    /**
+     * Initializes form to specifications, sets default values, and configures table views. May run on a preload
+     * thread, so the tables are filled by loadData().
+     */
+    @FXML
+    private void initialize() {
+        configureAppointmentColumns();
+        configureCustomerColumns();
+        allAppointmentsRadio.setSelected(true);
+        // Search as the user types
+        customerSearchField.textProperty().addListener((observable, oldText, newText) -> buildCustomerData());
+    }
+
+    /**
+     * Fills both tables and follows later changes. Called on the FX thread when the form is first shown.
+     */
+    @Override
+    public void loadData() {
+        buildAllAppointmentsData();
+        buildCustomerData();
+        // The form is loaded once by Navigator, so it patches row changes from the other forms for as long as the
+        // application runs and needs no reload when shown again
+        ChangeFeed.appointments.subscribe(this::applyAppointmentChange);
+        ChangeFeed.customers.subscribe(this::applyCustomerChange);
+    }
+
+    /**
+     * Configures appointment table columns
+     * Lambdas used here to keep code concise and efficient
+     */
+    private void configureAppointmentColumns() {
+        // Config raw value table columns  *Lambdas
+        apptIdCol.setCellValueFactory(appointmentCell(appointment -> String.valueOf(appointment.getAppointmentId())));
+        apptTitleCol.setCellValueFactory(appointmentCell(Appointment::getTitle));
+        apptDescriptionCol.setCellValueFactory(appointmentCell(Appointment::getDescription));
+        apptLocationCol.setCellValueFactory(appointmentCell(Appointment::getLocation));
+        apptTypeCol.setCellValueFactory(appointmentCell(Appointment::getType));
+        apptCustomerIdCol.setCellValueFactory(appointmentCell(appointment ->
+                String.valueOf(appointment.getCustomerId())));
+        apptUserIdCol.setCellValueFactory(appointmentCell(appointment -> String.valueOf(appointment.getUserId())));
+        apptContactCol.setCellValueFactory(appointmentCell(Appointment::getContactName));
+
+        // Show start and end time in system default time
+        apptStartCol.setCellValueFactory(appointmentCell(appointment ->
+                appointment.getStartSystem().format(dateTimeFormatter)));
+        apptEndCol.setCellValueFactory(appointmentCell(appointment ->
+                appointment.getEndSystem().format(dateTimeFormatter)));
+
+        // The paged all-appointments list only holds a few pages, so it can't be sorted in place
+        appointmentsTable.setSortPolicy(table -> !(table.getItems() instanceof PagedList)
+                && TableView.DEFAULT_SORT_POLICY.call(table));
+    }
+
+    /**
+     * @param value Text of the cell for a loaded appointment
+     * @return Cell value factory that leaves the cell blank while its row is still loading
+     */
+    private static Callback<TableColumn.CellDataFeatures<Appointment, String>, ObservableValue<String>> appointmentCell(
+            Function<Appointment, String> value) {
+        return cellData -> new SimpleStringProperty(cellData.getValue() == null ? null
+                : value.apply(cellData.getValue()));
+    }
+
+    /**
+     * Configures customer table columns
+     * Lambdas used here to keep code concise and efficient
+     */
+    private void configureCustomerColumns() {
+        // Config table columns  *Lambdas
+        custIdCol.setCellValueFactory(customerCell(customer -> String.valueOf(customer.getCustomerId())));
+        custNameCol.setCellValueFactory(customerCell(Customer::getCustomerName));
+        custAddressCol.setCellValueFactory(customerCell(Customer::getAddress));
+        custPostalCol.setCellValueFactory(customerCell(Customer::getPostalCode));
+        custPhoneCol.setCellValueFactory(customerCell(Customer::getPhone));
+        custStateCol.setCellValueFactory(customerCell(Customer::getDivision));
+
+        // Same as the appointments table: a paged list can't be sorted in place
+        customersTable.setSortPolicy(table -> !(table.getItems() instanceof PagedList)
+                && TableView.DEFAULT_SORT_POLICY.call(table));
+    }
+
+    /**
+     * @param value Text of the cell for a loaded customer
+     * @return Cell value factory that leaves the cell blank while its row is still loading
+     */
+    private static Callback<TableColumn.CellDataFeatures<Customer, String>, ObservableValue<String>> customerCell(
+            Function<Customer, String> value) {
+        return cellData -> new SimpleStringProperty(cellData.getValue() == null ? null
+                : value.apply(cellData.getValue()));
+    }
+
+    /**
+     * Displays all specified appointments data from SQL database (Default option)
+     */
+    public void buildAllAppointmentsData() {
+        // Only the row count and first page are read; later pages load as the table scrolls to them
+        appointmentView = this::buildAllAppointmentsData;
+        appointmentFilter = appointment -> true;
+        loadAppointments(() -> PagedList.open(PagedList.appointments));
+    }
+
+
+    /**
+     * Populates appointments table view with only appointments in the current month
+     */
+    public void buildCurrentMonthAppointmentsData() {
+        // Only rows starting this month are read, through the Start index
+        LocalDateTime monthStart = YearMonth.now().atDay(1).atStartOfDay();
+        appointmentView = this::buildCurrentMonthAppointmentsData;
+        appointmentFilter = startsBetween(monthStart, monthStart.plusMonths(1));
+        loadAppointments(() -> FXCollections.observableArrayList(AppointmentQuery.getCurrentMonthAppointments()));
+    }
+
+
+    /**
+     * Populates appointments table view with only appointments in the current week
+     */
+    public void buildCurrentWeekAppointmentsData() {
+        // Only rows starting this week (Monday to Sunday) are read, through the Start index
+        LocalDateTime weekStart = LocalDate.now().with(DayOfWeek.MONDAY).atStartOfDay();
+        appointmentView = this::buildCurrentWeekAppointmentsData;
+        appointmentFilter = startsBetween(weekStart, weekStart.plusWeeks(1));
+        loadAppointments(() -> FXCollections.observableArrayList(AppointmentQuery.getCurrentWeekAppointments()));
+    }
+
+    /**
+     * @param from First system time of the view
+     * @param to System time after the view
+     * @return Appointments the week or month view holds
+     */
+    private static Predicate<Appointment> startsBetween(LocalDateTime from, LocalDateTime to) {
+        return appointment -> !appointment.getStartSystem().isBefore(from) && appointment.getStartSystem().isBefore(to);
+    }
+
+    /**
+     * Loads appointments in the background and shows them. A newer filter click cancels a load still in progress,
+     * so the table always ends up showing the last filter chosen.
+     * @param query Reads the appointments to show
+     */
+    private void loadAppointments(DatabaseExecutor.Work<ObservableList<Appointment>> query) {
+        // Show progress indicator in place of the rows while loading
+        appointmentsTable.setItems(FXCollections.observableArrayList());
+        appointmentsTable.setPlaceholder(new ProgressIndicator());
+        appointmentRequests.submit(query, appointments -> {
+            // Set table view
+            allAppointments = appointments;
+            appointmentsTable.setPlaceholder(new Label("No appointments to display."));
+            appointmentsTable.setItems(sortable(allAppointments, appointmentsTable));
+        }, error -> {
+            error.printStackTrace();
+            appointmentsTable.setPlaceholder(new Label("Appointments could not be loaded."));
+        });
+    }
+
+    /**
+     * Populates customer table view with all specified customer data, or only customers matching the search field.
+     * All customers are paged in as the table scrolls; a search reads only its matches.
+     */
+    public void buildCustomerData() {
+        String search = customerSearchField.getText() == null ? "" : customerSearchField.getText().trim();
+        customerView = this::buildCustomerData;
+        customerFilter = search.isEmpty() ? customer -> true : customer -> CustomerSearchIndex.matches(search,
+                customer.getCustomerName(), customer.getPhone(), customer.getPostalCode());
+        if (search.isEmpty()) {
+            loadCustomers(() -> PagedList.open(PagedList.customers), "No customers to display.");
+        } else {
+            loadCustomers(() -> FXCollections.observableArrayList(CustomerQuery.searchCustomers(search,
+                    maxSearchResults)), "No customers match \"" + search + "\".");
+        }
+    }
+
+    /**
+     * Loads customers in the background and shows them. A newer search cancels a load still in progress, so typing
+     * quickly never leaves an older result on screen.
+     * @param query Reads the customers to show
+     * @param emptyMessage Shown when there are no customers
+     */
+    private void loadCustomers(DatabaseExecutor.Work<ObservableList<Customer>> query, String emptyMessage) {
+        // Show progress indicator in place of the rows while loading
+        customersTable.setItems(FXCollections.observableArrayList());
+        customersTable.setPlaceholder(new ProgressIndicator());
+        customerRequests.submit(query, customers -> {
+            // Set table view
+            allCustomers = customers;
+            customersTable.setPlaceholder(new Label(emptyMessage));
+            customersTable.setItems(sortable(allCustomers, customersTable));
+        }, error -> {
+            error.printStackTrace();
+            customersTable.setPlaceholder(new Label("Customers could not be loaded."));
+        });
+    }
+
+    /**
+     * @param rows Rows in ID order
+     * @param table Table to show them in
+     * @param <T> Row type
+     * @return A paged list as it is, or other rows behind a sorted view, so sorting the table leaves the rows in ID
+     * order for patching
+     */
+    private static <T> ObservableList<T> sortable(ObservableList<T> rows, TableView<T> table) {
+        if (rows instanceof PagedList) {
+            return rows;
+        }
+        SortedList<T> sorted = new SortedList<>(rows);
+        sorted.comparatorProperty().bind(table.comparatorProperty());
+        return sorted;
+    }
+
+    /**
+     * Patches one changed appointment into the table instead of reloading it
+     * @param change Appointment change
+     */
+    private void applyAppointmentChange(ChangeFeed.Change<Appointment> change) {
+        if (change.getKind() == ChangeFeed.Kind.RELOADED || appointmentRequests.isPending()) {
+            // Too many rows changed, or a load in progress may have read the table before the change
+            appointmentView.run();
+        } else if (allAppointments instanceof PagedList) {
+            ((PagedList<Appointment>) allAppointments).apply(change);
+        } else {
+            ChangeFeed.apply(allAppointments, change, Appointment::getAppointmentId, appointmentFilter);
+        }
+    }
+
+    /**
+     * Patches one changed customer into the table instead of reloading it
+     * @param change Customer change
+     */
+    private void applyCustomerChange(ChangeFeed.Change<Customer> change) {
+        if (change.getKind() == ChangeFeed.Kind.RELOADED || customerRequests.isPending()) {
+            customerView.run();
+        } else if (allCustomers instanceof PagedList) {
+            ((PagedList<Customer>) allCustomers).apply(change);
+        } else {
+            ChangeFeed.apply(allCustomers, change, Customer::getCustomerId, customerFilter);
+        }
+    }
+
+    /**
+     * Sets current userId from login
+     * @param userId
+     */
+    public static void setCurrentUserId(int userId) {
+        currentUserId = userId;
+    }
+
+    /**
+     * Starts reminding the current user of appointments for the rest of the session. Appointments starting within
+     * 15 minutes of login are left to the login alert.
+     */
+    public static void startReminders() {
+        stopReminders();
+        reminders = ReminderService.start(currentUserId, MainFormController::showReminder);
+    }
+
+    /**
+     * Stops the current user's reminders, if running
+     */
+    private static void stopReminders() {
+        if (reminders != null) {
+            reminders.stop();
+            reminders = null;
+        }
+    }
+
+    /**
+     * Shows a reminder without blocking the form behind it
+     * @param appointment Appointment starting soon
+     */
+    private static void showReminder(Appointment appointment) {
+        long minutesUntilStart = Math.max(0, Duration.between(LocalDateTime.now(),
+                appointment.getStartSystem()).toMinutes());
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Upcoming Appointment");
+        alert.setContentText("Appointment ID: " + appointment.getAppointmentId() + ", " + appointment.getTitle()
+                + ", starts at " + appointment.getStartSystem().format(dateTimeFormatter) + " (in "
+                + minutesUntilStart + " minutes).");
+        alert.show();
+    }
+
+
+    /**
+     * Switches to add customer form
+     * @throws IOException Add customer form not found
+     */
+    public void switchToAddCustomer() throws IOException {
+        // Switch to addCustomer form
+        Navigator.show(Navigator.Form.ADD_CUSTOMER);
+    }
+
+    /**
+     * Switches to modify customer form
+     * @throws IOException Modify customer form not found
+     */
+    public void switchToModifyCustomer() throws IOException {
+        if (customersTable.getSelectionModel().getSelectedItem() == null) { // If a customer is not selected
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle(null);
+            alert.setContentText("Please select a customer to modify.");
+            alert.showAndWait();
+        } else {  // If a customer is selected, the Modify Customer form opens with text fields populated with
+            // appropriate values for the customer
+            Customer selectedCustomer = customersTable.getSelectionModel().getSelectedItem();
+            ModifyCustomerController controller = Navigator.show(Navigator.Form.MODIFY_CUSTOMER,
+                    ModifyCustomerController.class); // Retrieves ModifyCustomer controller to enable
+            // fetchCustomerValues method
+
+            // Populate the form with existing values
+            controller.fetchCustomerValues(selectedCustomer);
+        }
+    }
+
+
+    /**
+     * Deletes selected customer from SQL database after checks and user confirmation; the table drops the row
+     * Check and delete run in the background
+     */
+    public void deleteSelectedCustomer() {
+        Customer selectedCustomer = customersTable.getSelectionModel().getSelectedItem();
+        if (selectedCustomer == null) { // If a customer is not selected
+            Alert alertNoSelection = new Alert(Alert.AlertType.ERROR);
+            alertNoSelection.setTitle(null);
+            alertNoSelection.setContentText("Please select a customer to delete.");
+            alertNoSelection.showAndWait();
+        } else {
+            // Confirmation of deletion required before customer is deleted
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+            confirm.setTitle("Confirmation");
+            confirm.setContentText("Are you sure you want to delete the selected customer?");
+            Optional<ButtonType> result = confirm.showAndWait();
+            if (result.get() == ButtonType.OK) { // If user confirms...
+                int customerId = selectedCustomer.getCustomerId();
+                deleteCustomerButton.setDisable(true);
+                DatabaseExecutor.run(() -> {
+                    // Check to make sure customer has no appointments
+                    List<Integer> appointmentList = getAppointmentIdsByCustomerId(customerId);
+                    if (!appointmentList.isEmpty()) {  // If customer has appointments
+                        return false;
+                    }
+                    deleteCustomer(customerId); // ...the customer is deleted...
+                    return true;
+                }, deletedCustomer -> {
+                    deleteCustomerButton.setDisable(false);
+                    if (!deletedCustomer) {
+                        // Display error
+                        Alert alertAppointments = new Alert(Alert.AlertType.ERROR);
+                        alertAppointments.setTitle(null);
+                        alertAppointments.setContentText("Cannot delete customer that currently has appointments.");
+                        alertAppointments.showAndWait();
+                    } else {
+                        // ...and customersTable drops the row through ChangeFeed.
+                        Alert deleted = new Alert(Alert.AlertType.INFORMATION);
+                        deleted.setTitle("Confirmation");
+                        deleted.setContentText("Customer successfully deleted.");
+                        deleted.showAndWait();
+                    }
+                }, error -> {
+                    deleteCustomerButton.setDisable(false);
+                    error.printStackTrace();
+                });
+            }
+        }
+    }
+
+
+    /**
+     * Deletes selected appointment from SQL database after user confirmation; the table drops the row
+     * Delete runs in the background
+     */
+    public void deleteSelectedAppointment() {
+        Appointment selectedAppointment = appointmentsTable.getSelectionModel().getSelectedItem();
+        if (selectedAppointment == null) { // If an appointment is not selected
+            Alert alertNoSelection = new Alert(Alert.AlertType.ERROR);
+            alertNoSelection.setTitle(null);
+            alertNoSelection.setContentText("Please select an appointment to delete.");
+            alertNoSelection.showAndWait();
+        } else {
+            // Confirmation of deletion required before appointment is deleted
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+            confirm.setTitle("Confirmation");
+            confirm.setContentText("Are you sure you want to delete the selected appointment?");
+            Optional<ButtonType> result = confirm.showAndWait();
+            if (result.get() == ButtonType.OK) { // If user confirms...
+                int appointmentId = selectedAppointment.getAppointmentId();
+                String appointmentTypeString = selectedAppointment.getType();
+                deleteAppointmentButton.setDisable(true);
+                DatabaseExecutor.run(() -> deleteAppointment(appointmentId), // ...the appointment is deleted...
+                        rowsAffected -> {
+                    deleteAppointmentButton.setDisable(false);
+                    // ...and appointmentsTable drops the row through ChangeFeed.
+                    Alert deleted = new Alert(Alert.AlertType.INFORMATION);
+                    deleted.setTitle("Confirmation");
+                    deleted.setContentText("Appointment with ID: " + appointmentId + ", Type: " +
+                            appointmentTypeString + " successfully deleted.");
+                    deleted.showAndWait();
+                }, error -> {
+                    deleteAppointmentButton.setDisable(false);
+                    error.printStackTrace();
+                });
+            }
+        }
+    }
+
+
+    /**
+     * Switches to add appointment form
+     * @throws IOException Add appointment form not found
+     */
+    public void switchToAddAppointment() throws IOException {
+        // Switch to addAppointment form
+        Navigator.show(Navigator.Form.ADD_APPOINTMENT);
+    }
+
+    /**
+     * Switches to modify appointment form
+     * @throws IOException Modify appointment form not found
+     * @throws SQLException SQL query fails
+     */
+    public void switchToModifyAppointment() throws IOException, SQLException {
+        if (appointmentsTable.getSelectionModel().getSelectedItem() == null) { // If an appointment is not selected
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle(null);
+            alert.setContentText("Please select an appointment to modify.");
+            alert.showAndWait();
+        } else {  // If an appointment is selected, the Modify Appointment form opens with text fields populated with
+            // appropriate values for the appointment
+            Appointment selectedAppointment = appointmentsTable.getSelectionModel().getSelectedItem();
+            ModifyAppointmentController controller = Navigator.show(Navigator.Form.MODIFY_APPOINTMENT,
+                    ModifyAppointmentController.class); // Retrieves ModifyAppointment controller to enable
+            // fetchAppointmentValues method
+
+            // Populate the form with existing values
+            controller.fetchAppointmentValues(selectedAppointment);
+        }
+
+    }
+
+
+    /**
+     * Switches to reports form
+     * @throws IOException Reports form not found
+     */
+    public void switchToReports() throws IOException {
+        // Switch to reports form
+        Navigator.show(Navigator.Form.REPORTS);
+    }
+
+
+    /**
+     * Returns to login form
+     * @throws IOException Login form not found
+     */
+    @FXML
+    void logout() throws IOException {
+        // The next user starts from the default views; the form itself stays loaded and its tables stay current
+        customerSearchField.clear();
+        appointmentsTable.getSelectionModel().clearSelection();
+        customersTable.getSelectionModel().clearSelection();
+        if (!allAppointmentsRadio.isSelected()) {
+            allAppointmentsRadio.setSelected(true);
+            buildAllAppointmentsData();
+        }
+        stopReminders();
+        // Switch to login form
+        Navigator.show(Navigator.Form.LOGIN);
+    }
+}
@@ -0,0 +1,215 @@
+package com.trevorBower.appointmentScheduler.controller;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Switches between forms on the one application Stage. Each form's FXML is parsed once; its scene and controller are
+ * kept and shown again on later visits, with the controller reset first if it implements Resettable. Each switch is
+ * timed from the call until the new scene has been laid out, and logged. Forms can be preloaded, parsing them on a
+ * background thread before their first visit; a controller that reads data implements Loadable, so the reads start
+ * on the FX thread at the first show rather than in initialize(). Use from the FX thread only.
+ */
+public final class Navigator {
+
+    /**
+     * Application forms and their FXML files
+     */
+    public enum Form {
+        LOGIN("/forms/Login.fxml", "User Login"),
+        MAIN("/forms/MainForm.fxml", "Appointment Scheduler"),
+        ADD_APPOINTMENT("/forms/AddAppointment.fxml", "Add Appointment"),
+        MODIFY_APPOINTMENT("/forms/ModifyAppointment.fxml", "Modify Appointment"),
+        ADD_CUSTOMER("/forms/AddCustomer.fxml", "Add Customer"),
+        MODIFY_CUSTOMER("/forms/ModifyCustomer.fxml", "Modify Customer"),
+        REPORTS("/forms/Reports.fxml", "Reports");
+
+        private final String fxmlPath;
+        private final String title;
+
+        Form(String fxmlPath, String title) {
+            this.fxmlPath = fxmlPath;
+            this.title = title;
+        }
+    }
+
+    /**
+     * Controller of a form whose fields must be cleared before it is shown again
+     */
+    public interface Resettable {
+        /**
+         * Returns the form to the state initialize() left it in. Called each time the cached form is shown again.
+         */
+        void reset();
+    }
+
+    /**
+     * Controller of a form that reads data or subscribes to changes. initialize() may run on a preload thread, so it
+     * only configures the form's own controls and leaves the rest to loadData().
+     */
+    public interface Loadable {
+        /**
+         * Starts the form's data loads and subscriptions. Called once, on the FX thread, when the form is first shown.
+         */
+        void loadData();
+    }
+
+    /**
+     * Parsed form kept between visits
+     */
+    private static class LoadedForm {
+        private final Parent root;
+        private final Object controller;
+        private Scene scene;  // Created on the FX thread at the first show
+
+        private LoadedForm(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+
+    private static final Map<Form, LoadedForm> loadedForms = new EnumMap<>(Form.class);
+    private static final Map<Form, CompletableFuture<LoadedForm>> preloads = new EnumMap<>(Form.class);
+    private static Stage stage;
+    private static Form currentForm;
+
+    private Navigator() {
+    }
+
+    /**
+     * @param primaryStage Stage every form is shown on
+     */
+    public static void init(Stage primaryStage) {
+        stage = primaryStage;
+    }
+
+    /**
+     * Shows a form on the application Stage, parsing it only on the first visit
+     * @param form Form to show
+     * @throws IOException Form file not found or invalid
+     */
+    public static void show(Form form) throws IOException {
+        show(form, Object.class);
+    }
+
+    /**
+     * Shows a form on the application Stage, parsing it only on the first visit
+     * @param form Form to show
+     * @param controllerType Controller class of the form
+     * @param <C> Controller type
+     * @return Form controller, to fill in values such as the selected row
+     * @throws IOException Form file not found or invalid
+     */
+    public static <C> C show(Form form, Class<C> controllerType) throws IOException {
+        long begin = System.nanoTime();
+        LoadedForm loaded = loadedForms.get(form);
+        String source;
+        if (loaded != null) {
+            source = "cached";
+            if (loaded.controller instanceof Resettable) {
+                ((Resettable) loaded.controller).reset();
+            }
+        } else {
+            loaded = takePreload(form);
+            source = loaded != null ? "preloaded" : "parsed";
+            if (loaded == null) {
+                loaded = load(form);
+            }
+            loaded.scene = new Scene(loaded.root);
+            loadedForms.put(form, loaded);
+            if (loaded.controller instanceof Loadable) {
+                ((Loadable) loaded.controller).loadData();
+            }
+        }
+
+        Form previousForm = currentForm;
+        currentForm = form;
+        stage.setTitle(form.title);
+        stage.setScene(loaded.scene);
+        stage.sizeToScene();
+        stage.show();
+        afterNextLayout(() -> System.out.printf("Switched %s -> %s in %.1f ms (%s)%n", previousForm, form,
+                (System.nanoTime() - begin) / 1e6, source));
+        return controllerType.cast(loaded.controller);
+    }
+
+    /**
+     * Parses a form on a background thread so its first show only has to attach it. The controller's initialize()
+     * runs on that thread too, so it must only configure its own controls; data loads belong in Loadable.loadData(),
+     * which runs on the FX thread. Does nothing for a form already loaded or on its way.
+     * @param form Form to parse
+     * @return Future completed once the form is parsed, or exceptionally if it couldn't be
+     */
+    public static CompletableFuture<Void> preload(Form form) {
+        if (loadedForms.containsKey(form)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<LoadedForm> preload = preloads.computeIfAbsent(form, key ->
+                CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return load(key);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+        return preload.thenApply(loaded -> null);
+    }
+
+    /**
+     * Waits for a preload of the form still being parsed, if any
+     * @return Preloaded form, or null if it wasn't preloaded or its preload failed
+     */
+    private static LoadedForm takePreload(Form form) {
+        CompletableFuture<LoadedForm> preload = preloads.remove(form);
+        if (preload == null) {
+            return null;
+        }
+        try {
+            return preload.join();  // Already parsing, so never slower than parsing again here
+        } catch (CompletionException e) {
+            e.getCause().printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Runs an action once the scene now showing has finished its next layout pulse
+     * @param action Action to run on the FX thread
+     */
+    public static void afterNextLayout(Runnable action) {
+        Scene scene = stage.getScene();
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            action.run();
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    /**
+     * @return Form showing on the Stage, or null before the first show
+     */
+    public static Form getCurrentForm() {
+        return currentForm;
+    }
+
+    private static LoadedForm load(Form form) throws IOException {
+        URL fxmlUrl = Navigator.class.getResource(form.fxmlPath);
+        if (fxmlUrl == null) {
+            throw new IOException("Form not found: " + form.fxmlPath);
+        }
+        FXMLLoader loader = new FXMLLoader(fxmlUrl);
+        Parent root = loader.load();
+        return new LoadedForm(root, loader.getController());
+    }
+}
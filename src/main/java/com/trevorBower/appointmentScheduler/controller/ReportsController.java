@@ -1,162 +1,210 @@
-package com.trevorBower.appointmentScheduler.controller;
-
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
-import javafx.scene.control.Alert;
-import javafx.scene.control.Button;
-import javafx.stage.Stage;
-import com.trevorBower.appointmentScheduler.helper.JDBC;
-
-import java.io.IOException;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.time.LocalDateTime;
-
-import static com.trevorBower.appointmentScheduler.helper.ExtraMethods.convertUtcTimeToSystem;
-import static com.trevorBower.appointmentScheduler.helper.FirstLevelDivisionsQuery.*;
-
-public class ReportsController {
-
-    @FXML
-    private Button cancelButton;
-
-    /**
-     * Displays total number of customer appointments by type and month
-     * @throws SQLException SQL query fails
-     */
-    public void report1() throws SQLException {
-        // Report 1 = Total number of customer appointments by type and month
-
-        // Prepare SQL query for # appointments by type
-        String sqlType = "SELECT c.Type, COUNT(*) " +
-                "FROM appointments c " +
-                "GROUP BY c.Type " +
-                "ORDER BY c.Type";
-        PreparedStatement psType = JDBC.connection.prepareStatement(sqlType);
-        ResultSet rsType = psType.executeQuery();
-
-        // Create report for # appointments by type
-        String appointmentsByTypeCount = "Total number of customer appointments by type:\n\n";
-        while(rsType.next()) {
-            String type = rsType.getString(1);
-            int count = rsType.getInt(2);
-            appointmentsByTypeCount += ("Type: " + type + " | Count: " + count + "\n");
-        }
-
-        // Prepare SQL query for # appointments by month
-        String sqlMonth = "SELECT MONTH(c.Start), COUNT(*) " +
-                "FROM appointments c " +
-                "GROUP BY MONTH(c.Start) " +
-                "ORDER BY MONTH(c.Start)";
-        PreparedStatement psMonth = JDBC.connection.prepareStatement(sqlMonth);
-        ResultSet rsMonth = psMonth.executeQuery();
-
-        // Create report for # appointments by month
-        String appointmentsByMonthCount = "Total number of customer appointments by month:\n\n";
-        while(rsMonth.next()) {
-            String month = rsMonth.getString(1);
-            int count = rsMonth.getInt(2);
-            appointmentsByMonthCount += ("Month: " + month + " | Count: " + count + "\n");
-        }
-
-        // Put both reports together
-        String fullReport = (appointmentsByTypeCount + "\n\n" + appointmentsByMonthCount);
-
-        // Display report
-        Alert report1Alert = new Alert(Alert.AlertType.INFORMATION);
-        report1Alert.setTitle("Report 1");
-        report1Alert.setContentText(fullReport);
-        report1Alert.showAndWait();
-
-    }
-
-    /**
-     * Displays schedule for each contact in organization that includes appointment ID, title, type, description, start
-     * date/time, end date/time, and customer ID
-     * @throws SQLException SQL query fails
-     */
-    public void report2() throws SQLException {
-        // Report 2 = Schedule for each contact in organization that includes appointment ID, title, type, description,
-        // start date/time, end date/time, and customer ID
-        String report2 = "Appointments in chronological order for each contact in organization:\n\n";
-
-        // Prepare SQL query
-        String sql = "SELECT c.Appointment_ID, c.Title, c.Type, c.Description, " +
-                "c.Start, c.End, c.Customer_ID, d.Contact_Name " +
-                "FROM appointments c " +
-                "JOIN contacts d ON c.Contact_ID = d.Contact_ID " +
-                "ORDER BY d.Contact_Name, c.Start";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ResultSet rs = ps.executeQuery();
-        while (rs.next()) {
-            String contactName = rs.getString("Contact_Name");
-            int appointmentId = rs.getInt("Appointment_ID");
-            String title = rs.getString("Title");
-            String type = rs.getString("Type");
-            String description = rs.getString("Description");
-            LocalDateTime startDateTimeUtc = rs.getTimestamp("Start").toLocalDateTime();
-            LocalDateTime startDateTimeSystem = convertUtcTimeToSystem(startDateTimeUtc);
-            LocalDateTime endDateTimeUtc = rs.getTimestamp("End").toLocalDateTime();
-            LocalDateTime endDateTimeSystem = convertUtcTimeToSystem(endDateTimeUtc);
-            int customerId = rs.getInt("Customer_ID");
-            report2 += ("Contact name: " + contactName + " | Appointment ID: " + appointmentId + " | Title: " + title +
-                    " | Type: " + type + " | Description: " + description + " | Start Date/Time: " + startDateTimeSystem +
-                    " | End Date/Time: " + endDateTimeSystem + " | Customer ID: " + customerId + "\n\n");
-        }
-
-        // Display report
-        Alert report1Alert = new Alert(Alert.AlertType.INFORMATION);
-        report1Alert.setTitle("Report 2");
-        report1Alert.setContentText(report2);
-        report1Alert.showAndWait();
-
-    }
-
-    /**
-     * Displays list of all customer names and their contact information
-     * @throws SQLException SQL query fails
-     */
-    public void report3() throws SQLException {
-        // Report 3 = List of all customer names and their contact information (Additional report of your choice)
-        String report3 = "List of all customer names and their contact information:\n\n";
-
-        // Prepare SQL query
-        String sql = "SELECT * FROM customers";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ResultSet rs = ps.executeQuery();
-        while(rs.next()) {
-            String customerName = rs.getString("Customer_Name");
-            String address = rs.getString("Address");
-            int divisionId = rs.getInt("Division_ID");
-            String division = getDivisionByDivisionId(divisionId);
-            int countryId = getCountryIdByDivisionId(divisionId);
-            String countryName = getCountryNameById(countryId);
-            String postalCode = rs.getString("Postal_Code");
-            String phoneNumber = rs.getString("Phone");
-            report3 += ("Customer Name: " + customerName + " | Full Address: " + address + ", " + division + ", " +
-                    countryName + ", " + postalCode + " | Phone Number: " + phoneNumber + "\n\n");
-        }
-
-        // Display report
-        Alert report1Alert = new Alert(Alert.AlertType.INFORMATION);
-        report1Alert.setTitle("Report 3");
-        report1Alert.setContentText(report3);
-        report1Alert.showAndWait();
-
-    }
-
-    public void switchToMainForm() throws IOException {
-        // Open main form
-        Parent root = FXMLLoader.load(getClass().getResource("/main/resources/mainForm.fxml"));
-        Stage stage = new Stage();
-        Scene scene = new Scene(root);
-        stage.setScene(scene);
-        stage.show();
-        // Close previous form
-        Stage reportStage = (Stage) cancelButton.getScene().getWindow();
-        reportStage.close();
-    }
-}
+package com.trevorBower.appointmentScheduler.controller;
+
+import javafx.fxml.FXML;
+import javafx.geometry.Pos;
+import javafx.scene.Cursor;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import com.trevorBower.appointmentScheduler.helper.AppointmentCounters;
+import com.trevorBower.appointmentScheduler.helper.DatabaseExecutor;
+import com.trevorBower.appointmentScheduler.helper.ReportEngine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static com.trevorBower.appointmentScheduler.helper.ReportQuery.*;
+
+public class ReportsController {
+
+    @FXML
+    private Button cancelButton;
+
+    private static final int linesPerPage = 500;  // Lines loaded into the preview at a time
+
+    // Report being built in the background; choosing another report cancels it
+    private final DatabaseExecutor.LatestRequest reportRequests = new DatabaseExecutor.LatestRequest();
+
+    /**
+     * Displays total number of customer appointments by type and month
+     */
+    public void report1() {
+        showReport(appointmentCounts());
+    }
+
+    /**
+     * Recounts report 1 from the appointments table in the background, to pick up changes made by other clients,
+     * then displays it
+     */
+    public void recountReport1() {
+        cancelButton.getScene().setCursor(Cursor.WAIT);
+        DatabaseExecutor.run(AppointmentCounters::rebuild, counted -> {
+            cancelButton.getScene().setCursor(Cursor.DEFAULT);
+            report1();
+        }, error -> {
+            cancelButton.getScene().setCursor(Cursor.DEFAULT);
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle(null);
+            alert.setContentText("Recount failed: " + error.getMessage());
+            alert.showAndWait();
+        });
+    }
+
+    /**
+     * Displays schedule for each contact in organization that includes appointment ID, title, type, description, start
+     * date/time, end date/time, and customer ID
+     */
+    public void report2() {
+        showReport(contactSchedules());
+    }
+
+    /**
+     * Displays list of all customer names and their contact information
+     */
+    public void report3() {
+        showReport(customerContacts());
+    }
+
+    /**
+     * Renders a report to a temporary file in the background with a wait cursor showing, then previews it. A render
+     * replaced by a newer report or by leaving the form deletes its file without being shown.
+     * @param report Report to show
+     */
+    private void showReport(ReportEngine.Report report) {
+        cancelButton.getScene().setCursor(Cursor.WAIT);
+        reportRequests.submit(() -> ReportEngine.render(report, ReportEngine.Format.TEXT, linesPerPage), rendered -> {
+            cancelButton.getScene().setCursor(Cursor.DEFAULT);
+            showPreview(rendered);
+        }, error -> {
+            cancelButton.getScene().setCursor(Cursor.DEFAULT);
+            error.printStackTrace();
+        }, ReportsController::discard);
+    }
+
+    /**
+     * Deletes the temporary file of a rendered report that won't be previewed
+     * @param rendered Rendered report
+     */
+    private static void discard(ReportEngine.RenderedReport rendered) {
+        try {
+            rendered.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Shows a rendered report one page at a time in a list view, which only draws the visible lines.
+     * The temporary file is deleted when the preview closes.
+     * @param rendered Rendered report
+     */
+    private void showPreview(ReportEngine.RenderedReport rendered) {
+        ListView<String> lines = new ListView<>();
+        Label pageLabel = new Label();
+        Button previousButton = new Button("Previous");
+        Button nextButton = new Button("Next");
+        Button exportButton = new Button("Export...");
+        int[] page = {0};
+
+        // Loads the current page and updates the pager  *Lambda
+        Runnable showPage = () -> {
+            try {
+                lines.getItems().setAll(rendered.readPage(page[0]));
+                lines.scrollTo(0);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            pageLabel.setText("Page " + (page[0] + 1) + " of " + rendered.getPageCount() + " ("
+                    + rendered.getRowCount() + " rows)");
+            previousButton.setDisable(page[0] == 0);
+            nextButton.setDisable(page[0] == rendered.getPageCount() - 1);
+        };
+        previousButton.setOnAction(event -> {
+            page[0]--;
+            showPage.run();
+        });
+        nextButton.setOnAction(event -> {
+            page[0]++;
+            showPage.run();
+        });
+        exportButton.setOnAction(event -> exportReport(rendered, exportButton));
+        showPage.run();
+
+        HBox pager = new HBox(10, previousButton, nextButton, pageLabel, exportButton);
+        pager.setAlignment(Pos.CENTER_LEFT);
+        VBox content = new VBox(10, lines, pager);
+        content.setPrefSize(900, 600);
+        VBox.setVgrow(lines, Priority.ALWAYS);
+
+        Dialog<Void> preview = new Dialog<>();
+        preview.setTitle(rendered.getReport().getTitle());
+        preview.setResizable(true);
+        preview.getDialogPane().setContent(content);
+        preview.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        preview.showAndWait();
+        try {
+            rendered.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Asks where to save the report and exports it there. A .txt file is copied from the preview; a .csv file
+     * re-runs the report as CSV in the background.
+     * @param rendered Rendered report being previewed
+     * @param exportButton Button disabled while the export runs
+     */
+    private void exportReport(ReportEngine.RenderedReport rendered, Button exportButton) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export " + rendered.getReport().getTitle());
+        chooser.setInitialFileName(rendered.getReport().getTitle().replace(' ', '_') + ".txt");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Text", "*.txt"),
+                new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        File file = chooser.showSaveDialog(exportButton.getScene().getWindow());
+        if (file == null) {
+            return;  // Cancelled
+        }
+        Path destination = file.toPath();
+        boolean csv = file.getName().toLowerCase().endsWith(".csv")
+                || chooser.getSelectedExtensionFilter() != null
+                && chooser.getSelectedExtensionFilter().getDescription().equals("CSV");
+        exportButton.setDisable(true);
+        DatabaseExecutor.run(() -> {
+            if (csv) {
+                ReportEngine.export(rendered.getReport(), ReportEngine.Format.CSV, destination);
+            } else {
+                rendered.saveAs(destination);
+            }
+            return destination;
+        }, saved -> {
+            exportButton.setDisable(false);
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle(null);
+            alert.setContentText("Report saved to " + saved + ".");
+            alert.showAndWait();
+        }, error -> {
+            exportButton.setDisable(false);
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle(null);
+            alert.setContentText("Report export failed: " + error.getMessage());
+            alert.showAndWait();
+        });
+    }
+
+    public void switchToMainForm() throws IOException {
+        // Drop a report still being built, then open main form
+        reportRequests.cancel();
+        cancelButton.getScene().setCursor(Cursor.DEFAULT);
+        Navigator.show(Navigator.Form.MAIN);
+    }
+}
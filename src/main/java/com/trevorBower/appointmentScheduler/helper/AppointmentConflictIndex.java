@@ -0,0 +1,264 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of appointment times, one interval tree per customer, so overlap checks don't need a database
+ * round trip. Loaded from the appointments table on first use and kept in sync by AppointmentQuery and
+ * AppointmentImport after each successful insert, update or delete.
+ * Appointments are half-open [start, end): one ending at 10:00 does not overlap one starting at 10:00.
+ * All times are UTC, matching the appointments table.
+ */
+public abstract class AppointmentConflictIndex {
+
+    private static final int loadFetchSize = 1000;  // Rows per round trip while loading
+    private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private static final Map<Integer, IntervalTree> treesByCustomer = new HashMap<>();
+    private static final Map<Integer, IndexedAppointment> appointmentsById = new HashMap<>();
+    private static volatile boolean loaded = false;
+
+    /**
+     * Where an indexed appointment is filed, so it can be found again on update or delete
+     */
+    private static class IndexedAppointment {
+        private final int customerId;
+        private final long start;
+        private final long end;
+
+        private IndexedAppointment(int customerId, long start, long end) {
+            this.customerId = customerId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    // Loading
+
+    /**
+     * Rebuilds the index from the appointments table
+     * @throws SQLException SQL query fails (index is left unloaded)
+     */
+    public static void load() throws SQLException {
+        String sql = "SELECT Appointment_ID, Customer_ID, Start, End FROM appointments";
+        lock.writeLock().lock();
+        try {
+            clear();
+            long begin = System.currentTimeMillis();
+            try (Connection connection = JDBC.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setFetchSize(loadFetchSize);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        add(rs.getInt(1), rs.getInt(2), rs.getObject(3, LocalDateTime.class),
+                                rs.getObject(4, LocalDateTime.class));
+                    }
+                }
+            } catch (SQLException e) {
+                clear();
+                throw e;
+            }
+            loaded = true;
+            System.out.println("Loaded " + appointmentsById.size() + " appointments into conflict index in "
+                    + (System.currentTimeMillis() - begin) + " ms");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the index; the next check reloads it from the database
+     */
+    public static void invalidate() {
+        lock.writeLock().lock();
+        try {
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return True if the index is loaded
+     */
+    public static boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return Number of appointments in the index
+     */
+    public static int size() {
+        lock.readLock().lock();
+        try {
+            return appointmentsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void ensureLoaded() throws SQLException {
+        if (!loaded) {
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    load();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static void clear() {
+        treesByCustomer.clear();
+        appointmentsById.clear();
+        loaded = false;
+    }
+
+    // Sync
+
+    /**
+     * Records an inserted or updated appointment. Does nothing until the index is loaded, since loading reads the
+     * committed row anyway.
+     * @param appointmentId Appointment ID
+     * @param customerId Customer ID
+     * @param startUtc Start date/time in UTC
+     * @param endUtc End date/time in UTC
+     */
+    public static void put(int appointmentId, int customerId, LocalDateTime startUtc, LocalDateTime endUtc) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                removeEntry(appointmentId);
+                add(appointmentId, customerId, startUtc, endUtc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a deleted appointment
+     * @param appointmentId Appointment ID
+     */
+    public static void remove(int appointmentId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(appointmentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-reads one appointment from the database, for updates that only changed some of its columns
+     * @param appointmentId Appointment ID
+     * @throws SQLException SQL query fails
+     */
+    public static void refresh(int appointmentId) throws SQLException {
+        if (!loaded) {
+            return;
+        }
+        String sql = "SELECT Customer_ID, Start, End FROM appointments WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, appointmentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    put(appointmentId, rs.getInt(1), rs.getObject(2, LocalDateTime.class),
+                            rs.getObject(3, LocalDateTime.class));
+                } else {
+                    remove(appointmentId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-reads all of one customer's appointments, used when the database finds a conflict the index missed
+     * @param customerId Customer ID
+     * @throws SQLException SQL query fails
+     */
+    public static void refreshCustomer(int customerId) throws SQLException {
+        String sql = "SELECT Appointment_ID, Start, End FROM appointments WHERE Customer_ID = ?";
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            IntervalTree tree = treesByCustomer.remove(customerId);
+            if (tree != null) {
+                appointmentsById.values().removeIf(indexed -> indexed.customerId == customerId);
+            }
+            try (Connection connection = JDBC.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setInt(1, customerId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        add(rs.getInt(1), customerId, rs.getObject(2, LocalDateTime.class),
+                                rs.getObject(3, LocalDateTime.class));
+                    }
+                }
+            } catch (SQLException e) {
+                clear();  // Customer is half loaded; start over on next use
+                throw e;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void add(int appointmentId, int customerId, LocalDateTime startUtc, LocalDateTime endUtc) {
+        long start = toEpochSecond(startUtc);
+        long end = toEpochSecond(endUtc);
+        treesByCustomer.computeIfAbsent(customerId, id -> new IntervalTree()).insert(appointmentId, start, end);
+        appointmentsById.put(appointmentId, new IndexedAppointment(customerId, start, end));
+    }
+
+    private static void removeEntry(int appointmentId) {
+        IndexedAppointment indexed = appointmentsById.remove(appointmentId);
+        if (indexed != null) {
+            IntervalTree tree = treesByCustomer.get(indexed.customerId);
+            tree.remove(appointmentId, indexed.start);
+            if (tree.size() == 0) {
+                treesByCustomer.remove(indexed.customerId);
+            }
+        }
+    }
+
+    // Queries
+
+    /**
+     * Checks whether a customer already has an appointment overlapping [start, end)
+     * @param customerId Customer ID
+     * @param startUtc Start date/time in UTC
+     * @param endUtc End date/time in UTC
+     * @param excludeAppointmentId Appointment being modified, or -1 when adding
+     * @return ID of an overlapping appointment, or -1 if there is none
+     * @throws SQLException Index had to be loaded and the SQL query failed
+     */
+    public static int findOverlap(int customerId, LocalDateTime startUtc, LocalDateTime endUtc,
+                                  int excludeAppointmentId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = treesByCustomer.get(customerId);
+            return tree == null ? -1
+                    : tree.findAnyOverlap(toEpochSecond(startUtc), toEpochSecond(endUtc), excludeAppointmentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long toEpochSecond(LocalDateTime utcDateTime) {
+        return utcDateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
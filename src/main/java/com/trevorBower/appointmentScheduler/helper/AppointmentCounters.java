@@ -0,0 +1,232 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Appointment counts by type and by month (of the UTC start, as MONTH(Start) gives), kept up to date in memory by
+ * AppointmentQuery and AppointmentImport after each successful insert, update or delete. Reading the counts costs
+ * one step per bucket instead of two GROUP BY scans of the appointments table. A NULL type or start is counted in a
+ * null bucket of its own, as GROUP BY does.
+ * Counters are built from the table on first use; rebuild() re-reads the table to reconcile with changes made by
+ * other clients. The table is read without holding the counters' lock, so writes keep going during a rebuild; the
+ * ones made meanwhile are noted and applied on top of what was read.
+ */
+public abstract class AppointmentCounters {
+
+    private static final int loadFetchSize = 1000;  // Rows per round trip while rebuilding
+    private static final Map<String, Integer> countsByType = new HashMap<>();  // Allows the null type; sorted on read
+    private static final int[] countsByMonth = new int[13];  // Index 1-12; 0 for a NULL start
+    private static final Map<Integer, Counted> countedById = new HashMap<>();
+    private static boolean loaded = false;
+    private static int rebuildsRunning = 0;
+    // Appointments written while a rebuild reads the table, to its latest buckets, or null if deleted
+    private static final Map<Integer, Counted> changedWhileRebuilding = new HashMap<>();
+
+    /**
+     * The buckets one appointment was counted in, so an update or delete can take it back out
+     */
+    private static class Counted {
+        private final String type;
+        private final int month;
+
+        private Counted(String type, int month) {
+            this.type = type;
+            this.month = month;
+        }
+    }
+
+    // Loading
+
+    /**
+     * Recounts every appointment from the appointments table
+     * @return Number of appointments counted
+     * @throws SQLException SQL query fails (counters are left as they were)
+     */
+    public static int rebuild() throws SQLException {
+        String sql = "SELECT Appointment_ID, Type, Start FROM appointments";
+        synchronized (AppointmentCounters.class) {
+            rebuildsRunning++;
+        }
+        long begin = System.currentTimeMillis();
+        Map<Integer, Counted> scanned = new HashMap<>();
+        try {
+            try (Connection connection = JDBC.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setFetchSize(loadFetchSize);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        scanned.put(rs.getInt(1), new Counted(rs.getString(2), monthOf(rs.getObject(3,
+                                LocalDateTime.class))));
+                    }
+                }
+            }
+            synchronized (AppointmentCounters.class) {
+                clear();
+                for (Map.Entry<Integer, Counted> entry : scanned.entrySet()) {
+                    add(entry.getKey(), entry.getValue());
+                }
+                // Writes committed during the read may or may not be in it; apply their latest state again
+                for (Map.Entry<Integer, Counted> entry : changedWhileRebuilding.entrySet()) {
+                    removeEntry(entry.getKey());
+                    if (entry.getValue() != null) {
+                        add(entry.getKey(), entry.getValue());
+                    }
+                }
+                loaded = true;
+                System.out.println("Counted " + countedById.size() + " appointments into " + countsByType.size()
+                        + " types in " + (System.currentTimeMillis() - begin) + " ms");
+                return countedById.size();
+            }
+        } finally {
+            synchronized (AppointmentCounters.class) {
+                if (--rebuildsRunning == 0) {
+                    changedWhileRebuilding.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the counters; the next read rebuilds them from the database
+     */
+    public static synchronized void invalidate() {
+        clear();
+    }
+
+    private static void ensureLoaded() throws SQLException {
+        synchronized (AppointmentCounters.class) {
+            if (loaded) {
+                return;
+            }
+        }
+        rebuild();
+    }
+
+    private static void clear() {
+        countsByType.clear();
+        Arrays.fill(countsByMonth, 0);
+        countedById.clear();
+        loaded = false;
+    }
+
+    // Sync
+
+    /**
+     * Counts an inserted or updated appointment, replacing its previous buckets. Does nothing until the counters are
+     * loaded, since loading counts the committed row anyway.
+     * @param appointmentId Appointment ID
+     * @param type Appointment type
+     * @param startUtc Start date/time in UTC
+     */
+    public static synchronized void put(int appointmentId, String type, LocalDateTime startUtc) {
+        Counted counted = new Counted(type, monthOf(startUtc));
+        if (rebuildsRunning > 0) {
+            changedWhileRebuilding.put(appointmentId, counted);
+        }
+        if (loaded) {
+            removeEntry(appointmentId);
+            add(appointmentId, counted);
+        }
+    }
+
+    /**
+     * Uncounts a deleted appointment
+     * @param appointmentId Appointment ID
+     */
+    public static synchronized void remove(int appointmentId) {
+        if (rebuildsRunning > 0) {
+            changedWhileRebuilding.put(appointmentId, null);
+        }
+        removeEntry(appointmentId);
+    }
+
+    /**
+     * Re-reads one appointment's type and start, for updates that only changed some of its columns
+     * @param appointmentId Appointment ID
+     * @throws SQLException SQL query fails
+     */
+    public static void refresh(int appointmentId) throws SQLException {
+        synchronized (AppointmentCounters.class) {
+            if (!loaded && rebuildsRunning == 0) {
+                return;
+            }
+        }
+        String sql = "SELECT Type, Start FROM appointments WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, appointmentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    put(appointmentId, rs.getString(1), rs.getObject(2, LocalDateTime.class));
+                } else {
+                    remove(appointmentId);
+                }
+            }
+        }
+    }
+
+    private static void add(int appointmentId, Counted counted) {
+        countsByType.merge(counted.type, 1, Integer::sum);
+        countsByMonth[counted.month]++;
+        countedById.put(appointmentId, counted);
+    }
+
+    private static int monthOf(LocalDateTime startUtc) {
+        return startUtc == null ? 0 : startUtc.getMonthValue();
+    }
+
+    private static void removeEntry(int appointmentId) {
+        Counted counted = countedById.remove(appointmentId);
+        if (counted != null) {
+            // Drop the bucket once empty, as GROUP BY would
+            countsByType.computeIfPresent(counted.type, (type, count) -> count > 1 ? count - 1 : null);
+            countsByMonth[counted.month]--;
+        }
+    }
+
+    // Reads
+
+    /**
+     * @return Appointment count for each type, in type order with a null type first
+     * @throws SQLException Counters had to be built and the SQL query failed
+     */
+    public static Map<String, Integer> getCountsByType() throws SQLException {
+        ensureLoaded();
+        Map<String, Integer> counts = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        synchronized (AppointmentCounters.class) {
+            counts.putAll(countsByType);
+        }
+        return counts;
+    }
+
+    /**
+     * @return Appointment count for each month (1-12) that has any, in month order, after a null month for
+     * appointments without a start
+     * @throws SQLException Counters had to be built and the SQL query failed
+     */
+    public static Map<Integer, Integer> getCountsByMonth() throws SQLException {
+        ensureLoaded();
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        synchronized (AppointmentCounters.class) {
+            if (countsByMonth[0] > 0) {
+                counts.put(null, countsByMonth[0]);
+            }
+            for (int month = 1; month < countsByMonth.length; month++) {
+                if (countsByMonth[month] > 0) {
+                    counts.put(month, countsByMonth[month]);
+                }
+            }
+        }
+        return counts;
+    }
+}
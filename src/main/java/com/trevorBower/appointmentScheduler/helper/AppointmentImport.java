@@ -0,0 +1,512 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.trevorBower.appointmentScheduler.helper.ExtraMethods.convertSystemTimeToUtc;
+import static com.trevorBower.appointmentScheduler.helper.ExtraMethods.isWithinBusinessHours;
+
+/**
+ * Bulk appointment import from CSV. Rows are streamed from the file, validated a chunk at a time (business hours and
+ * overlaps against both the database and earlier rows of the import), then inserted with JDBC batching, one
+ * transaction per chunk. Bad rows are reported without aborting the rest of the import.
+ *
+ * Expected columns (header row required): Title, Description, Location, Type, Start, End, Customer_ID, User_ID,
+ * Contact_ID. Start and End are in system default time, formatted yyyy-MM-dd HH:mm[:ss] or yyyy-MM-ddTHH:mm[:ss].
+ */
+public class AppointmentImport {
+
+    public static final int defaultChunkSize = 500;
+    private static final String[] expectedHeader = {"Title", "Description", "Location", "Type", "Start", "End",
+            "Customer_ID", "User_ID", "Contact_ID"};
+    private static final DateTimeFormatter dateTimeFormat = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd")
+            .optionalStart().appendLiteral(' ').optionalEnd()
+            .optionalStart().appendLiteral('T').optionalEnd()
+            .appendPattern("HH:mm")
+            .optionalStart().appendPattern(":ss").optionalEnd()
+            .toFormatter();
+
+    /**
+     * Imports appointments from a CSV file
+     * @param csvFile CSV file (UTF-8)
+     * @param chunkSize Rows validated and inserted per batch/transaction
+     * @return Import summary including per-row failures
+     * @throws IOException File cannot be read or header is wrong
+     * @throws SQLException Database cannot be reached
+     */
+    public static ImportResult importCsv(Path csvFile, int chunkSize) throws IOException, SQLException {
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            return importCsv(reader, chunkSize);
+        }
+    }
+
+    /**
+     * Imports appointments from CSV text
+     * @param csv CSV source, read one row at a time
+     * @param chunkSize Rows validated and inserted per batch/transaction
+     * @return Import summary including per-row failures
+     * @throws IOException Source cannot be read or header is wrong
+     * @throws SQLException Database cannot be reached
+     */
+    public static ImportResult importCsv(Reader csv, int chunkSize) throws IOException, SQLException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        BufferedReader reader = csv instanceof BufferedReader ? (BufferedReader) csv : new BufferedReader(csv);
+        ImportResult result = new ImportResult();
+        long startNanos = System.nanoTime();
+
+        // Check header
+        int[] lineNumber = {0};
+        List<String> header = readRecord(reader, lineNumber);
+        if (header == null || header.size() != expectedHeader.length) {
+            throw new IOException("Expected CSV header: " + String.join(",", expectedHeader));
+        }
+        for (int i = 0; i < expectedHeader.length; i++) {
+            if (!expectedHeader[i].equalsIgnoreCase(header.get(i).trim())) {
+                throw new IOException("Expected CSV header: " + String.join(",", expectedHeader));
+            }
+        }
+
+        // Stream the rest of the file a chunk at a time so memory stays flat
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        List<String> record;
+        while (true) {
+            int recordLine = lineNumber[0] + 1;
+            record = readRecord(reader, lineNumber);
+            if (record == null) {
+                break;
+            }
+            if (record.size() == 1 && record.get(0).trim().isEmpty()) {
+                continue;  // Skip blank lines
+            }
+            result.rowsRead++;
+            ImportRow row = parseRow(record, recordLine, result);
+            if (row != null) {
+                chunk.add(row);
+            }
+            if (chunk.size() >= chunkSize) {
+                processChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, result);
+        }
+
+        result.elapsedNanos = System.nanoTime() - startNanos;
+        return result;
+    }
+
+    // Parsing
+
+    /**
+     * Reads one CSV record, allowing quoted fields with commas, doubled quotes and line breaks
+     * @return Fields of the record, or null at end of input
+     */
+    private static List<String> readRecord(BufferedReader reader, int[] lineNumber) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber[0]++;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i >= line.length()) {
+                if (quoted) {  // Quoted field continues on the next line
+                    String next = reader.readLine();
+                    if (next == null) {
+                        break;
+                    }
+                    lineNumber[0]++;
+                    field.append('\n');
+                    line = next;
+                    i = 0;
+                    continue;
+                }
+                break;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Converts a record into an import row, recording a failure instead if any field is invalid
+     */
+    private static ImportRow parseRow(List<String> record, int lineNumber, ImportResult result) {
+        if (record.size() != expectedHeader.length) {
+            result.addFailure(lineNumber, "Expected " + expectedHeader.length + " fields but found " + record.size());
+            return null;
+        }
+        for (int i = 0; i < 4; i++) {
+            if (record.get(i).trim().isEmpty()) {
+                result.addFailure(lineNumber, expectedHeader[i] + " is missing a value");
+                return null;
+            }
+        }
+        ImportRow row = new ImportRow();
+        row.lineNumber = lineNumber;
+        row.title = record.get(0).trim();
+        row.description = record.get(1).trim();
+        row.location = record.get(2).trim();
+        row.type = record.get(3).trim();
+        try {
+            row.startSystem = LocalDateTime.parse(record.get(4).trim(), dateTimeFormat);
+            row.endSystem = LocalDateTime.parse(record.get(5).trim(), dateTimeFormat);
+        } catch (DateTimeParseException e) {
+            result.addFailure(lineNumber, "Incorrect date/time format (Ex: 2024-01-31 09:00)");
+            return null;
+        }
+        try {
+            row.customerId = Integer.parseInt(record.get(6).trim());
+            row.userId = Integer.parseInt(record.get(7).trim());
+            row.contactId = Integer.parseInt(record.get(8).trim());
+        } catch (NumberFormatException e) {
+            result.addFailure(lineNumber, "Customer_ID, User_ID and Contact_ID must be whole numbers");
+            return null;
+        }
+        if (!row.endSystem.isAfter(row.startSystem)) {
+            result.addFailure(lineNumber, "Appointment end date/time must be after start date/time");
+            return null;
+        }
+        if (!isWithinBusinessHours(row.startSystem) || !isWithinBusinessHours(row.endSystem)) {
+            result.addFailure(lineNumber, "Appointment time is outside EST business hours");
+            return null;
+        }
+        row.startUtc = convertSystemTimeToUtc(row.startSystem);
+        row.endUtc = convertSystemTimeToUtc(row.endSystem);
+        return row;
+    }
+
+    // Validation and insert
+
+    /**
+     * Rejects rows overlapping existing or earlier imported appointments, then batch inserts the rest
+     */
+    private static void processChunk(List<ImportRow> chunk, ImportResult result) throws SQLException {
+        try (Connection connection = JDBC.getConnection()) {
+            Map<Integer, TreeMap<Long, Long>> busyByCustomer = loadBusyIntervals(connection, chunk);
+            List<ImportRow> accepted = new ArrayList<>(chunk.size());
+            for (ImportRow row : chunk) {
+                TreeMap<Long, Long> busy = busyByCustomer.computeIfAbsent(row.customerId, id -> new TreeMap<>());
+                long start = row.startUtc.toEpochSecond(ZoneOffset.UTC);
+                long end = row.endUtc.toEpochSecond(ZoneOffset.UTC);
+                if (overlaps(busy, start, end)) {
+                    result.addFailure(row.lineNumber, "Customer has overlapping appointment times");
+                } else {
+                    busy.put(start, end);  // Later rows in this import must not overlap this one either
+                    accepted.add(row);
+                }
+            }
+            if (!accepted.isEmpty()) {
+                insertBatch(connection, accepted, result);
+            }
+        }
+    }
+
+    /**
+     * Loads each chunk customer's existing appointments within the chunk's time span, merged into non-overlapping
+     * busy intervals (epoch seconds, UTC) so each candidate can be checked with one floor lookup
+     */
+    private static Map<Integer, TreeMap<Long, Long>> loadBusyIntervals(Connection connection, List<ImportRow> chunk)
+            throws SQLException {
+        Set<Integer> customerIds = new LinkedHashSet<>();
+        LocalDateTime minStart = chunk.get(0).startUtc;
+        LocalDateTime maxEnd = chunk.get(0).endUtc;
+        for (ImportRow row : chunk) {
+            customerIds.add(row.customerId);
+            if (row.startUtc.isBefore(minStart)) {
+                minStart = row.startUtc;
+            }
+            if (row.endUtc.isAfter(maxEnd)) {
+                maxEnd = row.endUtc;
+            }
+        }
+        String placeholders = String.join(", ", Collections.nCopies(customerIds.size(), "?"));
+        String sql = "SELECT Customer_ID, Start, End FROM appointments WHERE Customer_ID IN (" + placeholders + ") "
+                + "AND Start < ? AND End > ? ORDER BY Customer_ID, Start";
+        Map<Integer, TreeMap<Long, Long>> busyByCustomer = new HashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (int customerId : customerIds) {
+                ps.setInt(index++, customerId);
+            }
+            ps.setObject(index++, maxEnd);
+            ps.setObject(index, minStart);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    TreeMap<Long, Long> busy = busyByCustomer.computeIfAbsent(rs.getInt(1), id -> new TreeMap<>());
+                    long start = rs.getObject(2, LocalDateTime.class).toEpochSecond(ZoneOffset.UTC);
+                    long end = rs.getObject(3, LocalDateTime.class).toEpochSecond(ZoneOffset.UTC);
+                    // Rows arrive ordered by start, so only the last interval can need merging
+                    Map.Entry<Long, Long> last = busy.lastEntry();
+                    if (last != null && start < last.getValue()) {
+                        busy.put(last.getKey(), Math.max(last.getValue(), end));
+                    } else {
+                        busy.put(start, end);
+                    }
+                }
+            }
+        }
+        return busyByCustomer;
+    }
+
+    /**
+     * @param busy Non-overlapping intervals keyed by start
+     * @return True if [start, end) overlaps any interval
+     */
+    private static boolean overlaps(TreeMap<Long, Long> busy, long start, long end) {
+        Map.Entry<Long, Long> before = busy.lowerEntry(end);  // Last interval starting before the new one ends
+        return before != null && before.getValue() > start;
+    }
+
+    /**
+     * Inserts rows with one batch in one transaction. If the batch fails, rolls back and retries the rows one at a
+     * time so only the rows the database rejects are reported. Inserted rows are added to AppointmentConflictIndex
+     * and AppointmentCounters.
+     */
+    private static void insertBatch(Connection connection, List<ImportRow> rows, ImportResult result)
+            throws SQLException {
+        String sql = "INSERT INTO appointments (Title, Description, Location, Type, Start, End, Customer_ID, User_ID, "
+                + "Contact_ID) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            try {
+                for (ImportRow row : rows) {
+                    bind(ps, row);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                boolean allKeys = readGeneratedKeys(ps, rows);
+                connection.commit();
+                result.rowsInserted += rows.size();
+                indexInserted(rows, allKeys);
+                return;
+            } catch (BatchUpdateException e) {
+                connection.rollback();
+                ps.clearBatch();
+            }
+
+            // Retry row by row; rows that succeed are committed together
+            List<ImportRow> inserted = new ArrayList<>(rows.size());
+            boolean allKeys = true;
+            for (ImportRow row : rows) {
+                try {
+                    bind(ps, row);
+                    ps.executeUpdate();
+                    allKeys &= readGeneratedKeys(ps, Collections.singletonList(row));
+                    inserted.add(row);
+                    result.rowsInserted++;
+                } catch (SQLException e) {
+                    result.addFailure(row.lineNumber, "Database rejected row: " + e.getMessage());
+                }
+            }
+            connection.commit();
+            indexInserted(inserted, allKeys);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Reads generated appointment IDs into the rows, in insert order
+     * @return True if the driver returned a key for every row
+     */
+    private static boolean readGeneratedKeys(PreparedStatement ps, List<ImportRow> rows) throws SQLException {
+        int i = 0;
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            while (i < rows.size() && keys.next()) {
+                rows.get(i++).appointmentId = keys.getInt(1);
+            }
+        }
+        return i == rows.size();
+    }
+
+    /**
+     * Adds committed rows to the conflict index and counters, or drops both if some IDs are unknown.
+     * Either way, open tables are told to reload.
+     */
+    private static void indexInserted(List<ImportRow> rows, boolean allKeys) {
+        if (!allKeys) {
+            AppointmentConflictIndex.invalidate();
+            AppointmentCounters.invalidate();
+            ChangeFeed.appointments.reloaded();
+            return;
+        }
+        for (ImportRow row : rows) {
+            AppointmentConflictIndex.put(row.appointmentId, row.customerId, row.startUtc, row.endUtc);
+            AppointmentCounters.put(row.appointmentId, row.type, row.startUtc);
+        }
+        // One reload for the chunk rather than an event per row
+        ChangeFeed.appointments.reloaded();
+    }
+
+    private static void bind(PreparedStatement ps, ImportRow row) throws SQLException {
+        ps.setString(1, row.title);
+        ps.setString(2, row.description);
+        ps.setString(3, row.location);
+        ps.setString(4, row.type);
+        ps.setObject(5, row.startUtc);
+        ps.setObject(6, row.endUtc);
+        ps.setInt(7, row.customerId);
+        ps.setInt(8, row.userId);
+        ps.setInt(9, row.contactId);
+    }
+
+    /**
+     * Parsed CSV row
+     */
+    private static class ImportRow {
+        private int lineNumber;
+        private int appointmentId;
+        private String title;
+        private String description;
+        private String location;
+        private String type;
+        private LocalDateTime startSystem;
+        private LocalDateTime endSystem;
+        private LocalDateTime startUtc;
+        private LocalDateTime endUtc;
+        private int customerId;
+        private int userId;
+        private int contactId;
+    }
+
+    /**
+     * Summary of an import
+     */
+    public static class ImportResult {
+        private long rowsRead;
+        private long rowsInserted;
+        private long elapsedNanos;
+        private final List<RowFailure> failures = new ArrayList<>();
+
+        private void addFailure(int lineNumber, String reason) {
+            failures.add(new RowFailure(lineNumber, reason));
+        }
+
+        /**
+         * @return Data rows read from the CSV (header and blank lines excluded)
+         */
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        /**
+         * @return Rows inserted into the database
+         */
+        public long getRowsInserted() {
+            return rowsInserted;
+        }
+
+        /**
+         * @return Rows rejected during validation or insert, in file order within each chunk
+         */
+        public List<RowFailure> getFailures() {
+            return Collections.unmodifiableList(failures);
+        }
+
+        /**
+         * @return Total import time in milliseconds
+         */
+        public double getElapsedMillis() {
+            return elapsedNanos / 1_000_000.0;
+        }
+
+        /**
+         * @return Rows read per second over the whole import
+         */
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rowsRead / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Read %d rows, inserted %d, rejected %d in %.1f ms (%.0f rows/sec)", rowsRead,
+                    rowsInserted, failures.size(), getElapsedMillis(), getRowsPerSecond());
+        }
+    }
+
+    /**
+     * A row that could not be imported
+     */
+    public static class RowFailure {
+        private final int lineNumber;
+        private final String reason;
+
+        private RowFailure(int lineNumber, String reason) {
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+        }
+
+        /**
+         * @return Line number of the row in the CSV (header is line 1)
+         */
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * @return Why the row was rejected
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + reason;
+        }
+    }
+}
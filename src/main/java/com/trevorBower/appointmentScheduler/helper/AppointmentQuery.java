@@ -1,302 +1,552 @@
-package com.trevorBower.appointmentScheduler.helper;
-
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
-import java.sql.SQLException;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-
-import static com.trevorBower.appointmentScheduler.helper.ExtraMethods.convertSystemTimeToUtc;
-
-public class AppointmentQuery {
-
-    // Setters
-
-    /**
-     * Inserts a new appointment into SQL database
-     * @param title Appointment Title
-     * @param description Appointment Description
-     * @param location Appointment Location
-     * @param type Appointment Type
-     * @param startDateTimeSystem Start date/time of appointment in system default time
-     * @param endDateTimeSystem End date/time of appointment in system default time
-     * @param customerId Customer ID (FK) for Appointment
-     * @param userId User ID (FK) for Appointment
-     * @param contactId Contact ID (FK) for Appointment
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int insertAppointment(String title, String description, String location, String type,
-                                        LocalDateTime startDateTimeSystem, LocalDateTime endDateTimeSystem,
-                                        int customerId, int userId, int contactId) throws SQLException {
-        String sql = "INSERT INTO appointments (Title, Description, Location, Type, Start, End, Customer_ID, User_ID, "
-                + "Contact_ID) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        // Convert system time values to UTC
-        LocalDateTime startDateTimeUTC = convertSystemTimeToUtc(startDateTimeSystem);
-        LocalDateTime endDateTimeUTC = convertSystemTimeToUtc(endDateTimeSystem);
-        ps.setString(1, title);
-        ps.setString(2, description);
-        ps.setString(3, location);
-        ps.setString(4, type);
-        ps.setObject(5, startDateTimeUTC);
-        ps.setObject(6, endDateTimeUTC);
-        ps.setInt(7, customerId);
-        ps.setInt(8, userId);
-        ps.setInt(9, contactId);
-        int rowsAffected = ps.executeUpdate();
-        if (rowsAffected > 0) {
-            System.out.println("Appointment successfully added.");
-        } else {
-            System.out.println("Appointment add failed.");
-        }
-        return rowsAffected;
-    }
-
-    /**
-     * Updates appointment Title
-     * @param appointmentId Appointment ID
-     * @param title Appointment Title
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateAppointmentTitle(int appointmentId, String title) throws SQLException {
-        String sql = "UPDATE appointments SET Title = ? WHERE Appointment_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setString(1, title);
-        ps.setInt(2,appointmentId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates appointment Description
-     * @param appointmentId Appointment ID
-     * @param description Appointment Description
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateAppointmentDescription(int appointmentId, String description) throws SQLException {
-        String sql = "UPDATE appointments SET Description = ? WHERE Appointment_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setString(1, description);
-        ps.setInt(2,appointmentId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates appointment Location
-     * @param appointmentId Appointment ID
-     * @param location Appointment Location
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateAppointmentLocation(int appointmentId, String location) throws SQLException {
-        String sql = "UPDATE appointments SET Location = ? WHERE Appointment_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setString(1, location);
-        ps.setInt(2,appointmentId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates appointment Type
-     * @param appointmentId Appointment ID
-     * @param type Appointment Type
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateAppointmentType(int appointmentId, String type) throws SQLException {
-        String sql = "UPDATE appointments SET Type = ? WHERE Appointment_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setString(1, type);
-        ps.setInt(2,appointmentId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates appointment Start Date/Time (Converts from system default time to UTC)
-     * @param appointmentId Appointment ID
-     * @param startDateTimeSystem Appointment Start Date/Time
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateAppointmentStart(int appointmentId, LocalDateTime startDateTimeSystem) throws SQLException {
-        String sql = "UPDATE appointments SET Start = ? WHERE Appointment_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        // Convert system time back to UTC
-        LocalDateTime startDateTimeUTC = convertSystemTimeToUtc(startDateTimeSystem);
-        ps.setObject(1, startDateTimeUTC);
-        ps.setInt(2,appointmentId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates appointment End Date/Time (Converts from system default time to UTC)
-     * @param appointmentId Appointment ID
-     * @param endDateTimeSystem Appointment End Date/Time
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateAppointmentEnd(int appointmentId, LocalDateTime endDateTimeSystem) throws SQLException {
-        String sql = "UPDATE appointments SET End = ? WHERE Appointment_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        // Convert system time back to UTC
-        LocalDateTime endDateTimeUTC = convertSystemTimeToUtc(endDateTimeSystem);
-        ps.setObject(1, endDateTimeUTC);
-        ps.setInt(2,appointmentId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates appointment Customer ID
-     * @param appointmentId Appointment ID
-     * @param customerId Customer ID for Appointment
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateAppointmentCustomerId(int appointmentId, int customerId) throws SQLException {
-        String sql = "UPDATE appointments SET Customer_ID = ? WHERE Appointment_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setInt(1, customerId);
-        ps.setInt(2,appointmentId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates appointment User ID
-     * @param appointmentId Appointment ID
-     * @param userId User ID for Appointment
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateAppointmentUserId(int appointmentId, int userId) throws SQLException {
-        String sql = "UPDATE appointments SET User_ID = ? WHERE Appointment_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setInt(1, userId);
-        ps.setInt(2,appointmentId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates appointment Contact ID
-     * @param appointmentId Appointment ID
-     * @param contactId Contact ID for Appointment
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateAppointmentContactId(int appointmentId, int contactId) throws SQLException {
-        String sql = "UPDATE appointments SET Contact_ID = ? WHERE Appointment_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setInt(1, contactId);
-        ps.setInt(2,appointmentId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates all specified appointment values
-     * @param appointmentId Appointment ID
-     * @param title Appointment title
-     * @param description Appointment description
-     * @param location Appointment location
-     * @param type Appointment type
-     * @param startDateTime Start Date/Time for Appointment
-     * @param endDateTime End Date/Time for Appointment
-     * @param customerId Customer ID for Appointment
-     * @param userId User ID for Appointment
-     * @param contactId Contact ID for Appointment
-     * @throws SQLException SQL query fails
-     */
-    public static void updateAppointmentAll(int appointmentId, String title, String description, String location,
-                                           String type, LocalDateTime startDateTime, LocalDateTime endDateTime,
-                                           int customerId, int userId, int contactId) throws SQLException {
-        updateAppointmentTitle(appointmentId, title);
-        updateAppointmentDescription(appointmentId, description);
-        updateAppointmentLocation(appointmentId, location);
-        updateAppointmentType(appointmentId, type);
-        updateAppointmentStart(appointmentId, startDateTime);
-        updateAppointmentEnd(appointmentId, endDateTime);
-        updateAppointmentCustomerId(appointmentId, customerId);
-        updateAppointmentUserId(appointmentId, userId);
-        updateAppointmentContactId(appointmentId, contactId);
-    }
-
-    // Getters
-
-    /**
-     * Get all appointment ID's based on customer ID
-     * @param customerId Customer ID
-     * @return List of appointment ID's
-     * @throws SQLException SQL query fails
-     */
-    public static List<Integer> getAppointmentIdsByCustomerId(int customerId) throws SQLException {
-        List<Integer> appointmentList = new ArrayList<>();
-        String sql = "SELECT Appointment_ID FROM appointments WHERE Customer_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setInt(1, customerId);
-        ResultSet rs = ps.executeQuery();
-        // Move cursor to front row
-        while (rs.next()) {
-            int appointment = rs.getInt("Appointment_ID");
-            appointmentList.add(appointment);
-        }
-        return appointmentList;
-    }
-
-    /**
-     * Get all information for all appointments based on user ID
-     * @param userId User ID
-     * @return ObservableList of ObservableLists of all information for selected appointments
-     * @throws SQLException SQL query fails
-     */
-    public static ObservableList<ObservableList> getAppointmentsByUserId(int userId) throws SQLException {
-        ObservableList<ObservableList> userAppointments = FXCollections.observableArrayList();
-        String sql = "SELECT * FROM appointments WHERE User_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setInt(1, userId);
-        ResultSet rs = ps.executeQuery();
-        // Move cursor to front row
-        while (rs.next()) {
-            ObservableList appointment = FXCollections.observableArrayList();
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            for (int i = 1; i <= columnCount; i++) {
-                Object columnValue = rs.getObject(i);
-                appointment.add(columnValue);
-            }
-
-            userAppointments.add(appointment);
-        }
-        return userAppointments;
-    }
-
-    // Delete
-
-    /**
-     * Deletes appointment from SQL Database based on appointment ID
-     * @param appointmentId Appointment ID
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int deleteAppointment(int appointmentId) throws SQLException {
-        String sql = "DELETE FROM appointments WHERE Appointment_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setInt(1, appointmentId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-}
+package com.trevorBower.appointmentScheduler.helper;
+
+import com.trevorBower.appointmentScheduler.model.Appointment;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.trevorBower.appointmentScheduler.helper.ExtraMethods.convertSystemTimeToUtc;
+
+public class AppointmentQuery {
+
+    // Appointment columns joined with the contact name, in the order readAppointment expects
+    private static final String appointmentSelect = "SELECT c.Appointment_ID, c.Title, c.Description, c.Location, "
+            + "c.Type, c.Start, c.End, c.Customer_ID, c.User_ID, c.Contact_ID, d.Contact_Name FROM appointments c "
+            + "JOIN contacts d ON c.Contact_ID = d.Contact_ID";
+
+    // Setters
+
+    /**
+     * Inserts a new appointment into SQL database
+     * @param title Appointment Title
+     * @param description Appointment Description
+     * @param location Appointment Location
+     * @param type Appointment Type
+     * @param startDateTimeSystem Start date/time of appointment in system default time
+     * @param endDateTimeSystem End date/time of appointment in system default time
+     * @param customerId Customer ID (FK) for Appointment
+     * @param userId User ID (FK) for Appointment
+     * @param contactId Contact ID (FK) for Appointment
+     * @return Inserted appointment with its generated ID, or null if nothing was inserted or the driver returned no
+     * key
+     * @throws SQLException SQL query fails
+     */
+    public static Appointment insertAppointment(String title, String description, String location, String type,
+                                        LocalDateTime startDateTimeSystem, LocalDateTime endDateTimeSystem,
+                                        int customerId, int userId, int contactId) throws SQLException {
+        String sql = "INSERT INTO appointments (Title, Description, Location, Type, Start, End, Customer_ID, User_ID, "
+                + "Contact_ID) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            // Convert system time values to UTC
+            LocalDateTime startDateTimeUTC = convertSystemTimeToUtc(startDateTimeSystem);
+            LocalDateTime endDateTimeUTC = convertSystemTimeToUtc(endDateTimeSystem);
+            ps.setString(1, title);
+            ps.setString(2, description);
+            ps.setString(3, location);
+            ps.setString(4, type);
+            ps.setObject(5, startDateTimeUTC);
+            ps.setObject(6, endDateTimeUTC);
+            ps.setInt(7, customerId);
+            ps.setInt(8, userId);
+            ps.setInt(9, contactId);
+            int rowsAffected = ps.executeUpdate();
+            Appointment insertedRow = null;
+            if (rowsAffected > 0) {
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        int appointmentId = keys.getInt(1);
+                        insertedRow = getAppointment(connection, appointmentId);  // Adds the contact name
+                        AppointmentConflictIndex.put(appointmentId, customerId, startDateTimeUTC, endDateTimeUTC);
+                        AppointmentCounters.put(appointmentId, type, startDateTimeUTC);
+                        ChangeFeed.appointments.inserted(appointmentId, insertedRow);
+                    } else {
+                        // Driver gave no key; reload on next use
+                        AppointmentConflictIndex.invalidate();
+                        AppointmentCounters.invalidate();
+                        ChangeFeed.appointments.reloaded();
+                    }
+                }
+                System.out.println("Appointment successfully added.");
+            } else {
+                System.out.println("Appointment add failed.");
+            }
+            return insertedRow;
+        }
+    }
+
+    /**
+     * Updates appointment Title
+     * @param appointmentId Appointment ID
+     * @param title Appointment Title
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateAppointmentTitle(int appointmentId, String title) throws SQLException {
+        String sql = "UPDATE appointments SET Title = ? WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, title);
+            ps.setInt(2,appointmentId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                ChangeFeed.appointments.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates appointment Description
+     * @param appointmentId Appointment ID
+     * @param description Appointment Description
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateAppointmentDescription(int appointmentId, String description) throws SQLException {
+        String sql = "UPDATE appointments SET Description = ? WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, description);
+            ps.setInt(2,appointmentId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                ChangeFeed.appointments.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates appointment Location
+     * @param appointmentId Appointment ID
+     * @param location Appointment Location
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateAppointmentLocation(int appointmentId, String location) throws SQLException {
+        String sql = "UPDATE appointments SET Location = ? WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, location);
+            ps.setInt(2,appointmentId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                ChangeFeed.appointments.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates appointment Type
+     * @param appointmentId Appointment ID
+     * @param type Appointment Type
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateAppointmentType(int appointmentId, String type) throws SQLException {
+        String sql = "UPDATE appointments SET Type = ? WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, type);
+            ps.setInt(2,appointmentId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                AppointmentCounters.refresh(appointmentId);
+                ChangeFeed.appointments.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates appointment Start Date/Time (Converts from system default time to UTC)
+     * @param appointmentId Appointment ID
+     * @param startDateTimeSystem Appointment Start Date/Time
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateAppointmentStart(int appointmentId, LocalDateTime startDateTimeSystem) throws SQLException {
+        String sql = "UPDATE appointments SET Start = ? WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            // Convert system time back to UTC
+            LocalDateTime startDateTimeUTC = convertSystemTimeToUtc(startDateTimeSystem);
+            ps.setObject(1, startDateTimeUTC);
+            ps.setInt(2,appointmentId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                AppointmentConflictIndex.refresh(appointmentId);
+                AppointmentCounters.refresh(appointmentId);
+                ChangeFeed.appointments.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates appointment End Date/Time (Converts from system default time to UTC)
+     * @param appointmentId Appointment ID
+     * @param endDateTimeSystem Appointment End Date/Time
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateAppointmentEnd(int appointmentId, LocalDateTime endDateTimeSystem) throws SQLException {
+        String sql = "UPDATE appointments SET End = ? WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            // Convert system time back to UTC
+            LocalDateTime endDateTimeUTC = convertSystemTimeToUtc(endDateTimeSystem);
+            ps.setObject(1, endDateTimeUTC);
+            ps.setInt(2,appointmentId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                AppointmentConflictIndex.refresh(appointmentId);
+                ChangeFeed.appointments.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates appointment Customer ID
+     * @param appointmentId Appointment ID
+     * @param customerId Customer ID for Appointment
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateAppointmentCustomerId(int appointmentId, int customerId) throws SQLException {
+        String sql = "UPDATE appointments SET Customer_ID = ? WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, customerId);
+            ps.setInt(2,appointmentId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                AppointmentConflictIndex.refresh(appointmentId);
+                ChangeFeed.appointments.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates appointment User ID
+     * @param appointmentId Appointment ID
+     * @param userId User ID for Appointment
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateAppointmentUserId(int appointmentId, int userId) throws SQLException {
+        String sql = "UPDATE appointments SET User_ID = ? WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            ps.setInt(2,appointmentId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                ChangeFeed.appointments.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates appointment Contact ID
+     * @param appointmentId Appointment ID
+     * @param contactId Contact ID for Appointment
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateAppointmentContactId(int appointmentId, int contactId) throws SQLException {
+        String sql = "UPDATE appointments SET Contact_ID = ? WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, contactId);
+            ps.setInt(2,appointmentId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                ChangeFeed.appointments.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates all specified appointment values with a single UPDATE inside one transaction, so other readers never
+     * see a partially updated row
+     * @param appointmentId Appointment ID
+     * @param title Appointment title
+     * @param description Appointment description
+     * @param location Appointment location
+     * @param type Appointment type
+     * @param startDateTime Start Date/Time for Appointment (system default time)
+     * @param endDateTime End Date/Time for Appointment (system default time)
+     * @param customerId Customer ID for Appointment
+     * @param userId User ID for Appointment
+     * @param contactId Contact ID for Appointment
+     * @return Updated appointment, or null if appointment no longer exists
+     * @throws SQLException SQL query fails (transaction is rolled back)
+     */
+    public static Appointment updateAppointmentAll(int appointmentId, String title, String description,
+                                                   String location, String type, LocalDateTime startDateTime,
+                                                   LocalDateTime endDateTime, int customerId, int userId,
+                                                   int contactId) throws SQLException {
+        String sql = "UPDATE appointments SET Title = ?, Description = ?, Location = ?, Type = ?, Start = ?, End = ?, "
+                + "Customer_ID = ?, User_ID = ?, Contact_ID = ? WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                Appointment updatedRow = null;
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    ps.setString(1, title);
+                    ps.setString(2, description);
+                    ps.setString(3, location);
+                    ps.setString(4, type);
+                    // Convert system time back to UTC
+                    ps.setObject(5, convertSystemTimeToUtc(startDateTime));
+                    ps.setObject(6, convertSystemTimeToUtc(endDateTime));
+                    ps.setInt(7, customerId);
+                    ps.setInt(8, userId);
+                    ps.setInt(9, contactId);
+                    ps.setInt(10, appointmentId);
+                    if (ps.executeUpdate() > 0) {
+                        updatedRow = getAppointment(connection, appointmentId);
+                    }
+                }
+                connection.commit();
+                if (updatedRow != null) {
+                    AppointmentConflictIndex.put(appointmentId, customerId, convertSystemTimeToUtc(startDateTime),
+                            convertSystemTimeToUtc(endDateTime));
+                    AppointmentCounters.put(appointmentId, type, convertSystemTimeToUtc(startDateTime));
+                    ChangeFeed.appointments.updated(appointmentId, updatedRow);
+                }
+                return updatedRow;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // Getters
+
+    /**
+     * Get one appointment with its contact name
+     * @param connection Connection to read with, so the row can be read inside an open transaction
+     * @param appointmentId Appointment ID
+     * @return Appointment, or null if not found
+     * @throws SQLException SQL query fails
+     */
+    private static Appointment getAppointment(Connection connection, int appointmentId) throws SQLException {
+        String sql = appointmentSelect + " WHERE c.Appointment_ID = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, appointmentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? readAppointment(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Get one page of appointments by keyset: the rows after a known appointment ID, in appointment ID order. Each
+     * page costs the same however deep into the table it is, unlike LIMIT/OFFSET.
+     * @param afterAppointmentId Last appointment ID of the previous page, or 0 for the first page
+     * @param pageSize Maximum rows to return
+     * @return Up to pageSize appointments
+     * @throws SQLException SQL query fails
+     */
+    public static List<Appointment> getAppointmentPage(int afterAppointmentId, int pageSize) throws SQLException {
+        List<Appointment> appointments = new ArrayList<>(pageSize);
+        String sql = appointmentSelect + " WHERE c.Appointment_ID > ? ORDER BY c.Appointment_ID LIMIT ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, afterAppointmentId);
+            ps.setInt(2, pageSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    appointments.add(readAppointment(rs));
+                }
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Finds the appointment ID a number of rows past a known one, reading only the primary key index. Used to
+     * find the keyset start of a page that was jumped to rather than scrolled to.
+     * @param afterAppointmentId Known appointment ID, or 0 for the start of the table
+     * @param skip Rows to skip after it
+     * @return Appointment ID of the row after the skipped ones, or null if the table ends first
+     * @throws SQLException SQL query fails
+     */
+    public static Integer getAppointmentIdAfter(int afterAppointmentId, int skip) throws SQLException {
+        String sql = "SELECT Appointment_ID FROM appointments WHERE Appointment_ID > ? ORDER BY Appointment_ID "
+                + "LIMIT 1 OFFSET ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, afterAppointmentId);
+            ps.setInt(2, skip);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    /**
+     * @return Number of appointments in the table
+     * @throws SQLException SQL query fails
+     */
+    public static int countAppointments() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM appointments";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Get appointments starting in [from, to) through the Start index, in appointment ID order
+     * @param fromUtc Earliest start in UTC
+     * @param toUtc Start must be before this, in UTC
+     * @return Appointments in the range
+     * @throws SQLException SQL query fails
+     */
+    public static List<Appointment> getAppointmentsStartingBetween(LocalDateTime fromUtc, LocalDateTime toUtc)
+            throws SQLException {
+        List<Appointment> appointments = new ArrayList<>();
+        String sql = appointmentSelect + " WHERE c.Start >= ? AND c.Start < ? ORDER BY c.Appointment_ID";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setObject(1, fromUtc);
+            ps.setObject(2, toUtc);
+            ps.setFetchSize(JDBC.getFetchSize());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    appointments.add(readAppointment(rs));
+                }
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Get appointments starting in the current week (Monday to Sunday) of system default time
+     * @return Appointments this week
+     * @throws SQLException SQL query fails
+     */
+    public static List<Appointment> getCurrentWeekAppointments() throws SQLException {
+        LocalDate currentWeekFirstDay = LocalDate.now().with(DayOfWeek.MONDAY);
+        return getAppointmentsStartingBetween(convertSystemTimeToUtc(currentWeekFirstDay.atStartOfDay()),
+                convertSystemTimeToUtc(currentWeekFirstDay.plusWeeks(1).atStartOfDay()));
+    }
+
+    /**
+     * Get appointments starting in the current month (of the current year) of system default time
+     * @return Appointments this month
+     * @throws SQLException SQL query fails
+     */
+    public static List<Appointment> getCurrentMonthAppointments() throws SQLException {
+        YearMonth currentYearMonth = YearMonth.now();
+        return getAppointmentsStartingBetween(convertSystemTimeToUtc(currentYearMonth.atDay(1).atStartOfDay()),
+                convertSystemTimeToUtc(currentYearMonth.plusMonths(1).atDay(1).atStartOfDay()));
+    }
+
+    /**
+     * Reads the current row of a query built on appointmentSelect
+     * @param rs Result set positioned on a row
+     * @return Appointment
+     * @throws SQLException Column can't be read
+     */
+    private static Appointment readAppointment(ResultSet rs) throws SQLException {
+        return new Appointment(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                rs.getObject(6, LocalDateTime.class), rs.getObject(7, LocalDateTime.class), rs.getInt(8),
+                rs.getInt(9), rs.getInt(10), rs.getString(11));
+    }
+
+    /**
+     * Get all appointment ID's based on customer ID
+     * @param customerId Customer ID
+     * @return List of appointment ID's
+     * @throws SQLException SQL query fails
+     */
+    public static List<Integer> getAppointmentIdsByCustomerId(int customerId) throws SQLException {
+        List<Integer> appointmentList = new ArrayList<>();
+        String sql = "SELECT Appointment_ID FROM appointments WHERE Customer_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, customerId);
+            try (ResultSet rs = ps.executeQuery()) {
+                // Move cursor to front row
+                while (rs.next()) {
+                    int appointment = rs.getInt("Appointment_ID");
+                    appointmentList.add(appointment);
+                }
+                return appointmentList;
+            }
+        }
+    }
+
+    /**
+     * Get one user's appointments starting in a UTC window, such as the next 15 minutes at login. Reads only the
+     * matching rows through the (User_ID, Start) index.
+     * @param userId User ID
+     * @param fromUtc Earliest start (UTC), inclusive
+     * @param toUtc Latest start (UTC), inclusive
+     * @return Appointments of the user starting in the window, earliest first
+     * @throws SQLException SQL query fails
+     */
+    public static List<Appointment> getUserAppointmentsStartingBetween(int userId, LocalDateTime fromUtc,
+                                                                       LocalDateTime toUtc) throws SQLException {
+        List<Appointment> appointments = new ArrayList<>();
+        String sql = appointmentSelect + " WHERE c.User_ID = ? AND c.Start BETWEEN ? AND ? ORDER BY c.Start";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            ps.setObject(2, fromUtc);
+            ps.setObject(3, toUtc);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    appointments.add(readAppointment(rs));
+                }
+            }
+        }
+        return appointments;
+    }
+
+    // Delete
+
+    /**
+     * Deletes appointment from SQL Database based on appointment ID
+     * @param appointmentId Appointment ID
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int deleteAppointment(int appointmentId) throws SQLException {
+        String sql = "DELETE FROM appointments WHERE Appointment_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, appointmentId);
+            int rowsAffected = ps.executeUpdate();
+            AppointmentConflictIndex.remove(appointmentId);
+            AppointmentCounters.remove(appointmentId);
+            if (rowsAffected > 0) {
+                ChangeFeed.appointments.deleted(appointmentId);
+            }
+            return rowsAffected;
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import com.trevorBower.appointmentScheduler.model.Appointment;
+import com.trevorBower.appointmentScheduler.model.Customer;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Row changes published by the query classes after each successful insert, update or delete, so open tables can
+ * patch the one changed row instead of re-running their query. Listeners are called on the FX thread.
+ * @param <T> Row type
+ */
+public final class ChangeFeed<T> {
+
+    /**
+     * Appointment changes from AppointmentQuery and AppointmentImport
+     */
+    public static final ChangeFeed<Appointment> appointments = new ChangeFeed<>();
+
+    /**
+     * Customer changes from CustomerQuery
+     */
+    public static final ChangeFeed<Customer> customers = new ChangeFeed<>();
+
+    public enum Kind {
+        INSERTED,
+        UPDATED,
+        DELETED,
+        RELOADED  // Too many rows changed to list, such as an import; reload instead of patching
+    }
+
+    /**
+     * One changed row
+     * @param <T> Row type
+     */
+    public static final class Change<T> {
+        private final Kind kind;
+        private final int id;
+        private final T row;
+
+        private Change(Kind kind, int id, T row) {
+            this.kind = kind;
+            this.id = id;
+            this.row = row;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return ID of the changed row (0 for RELOADED)
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * @return Row as committed, or null for DELETED and RELOADED
+         */
+        public T getRow() {
+            return row;
+        }
+
+        @Override
+        public String toString() {
+            return "Change[" + kind + ", " + id + "]";
+        }
+    }
+
+    private final List<Consumer<Change<T>>> listeners = new CopyOnWriteArrayList<>();
+
+    private ChangeFeed() {
+    }
+
+    /**
+     * @param listener Called on the FX thread with each change
+     */
+    public void subscribe(Consumer<Change<T>> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener Listener to stop calling
+     */
+    public void unsubscribe(Consumer<Change<T>> listener) {
+        listeners.remove(listener);
+    }
+
+    void inserted(int id, T row) {
+        publish(new Change<>(Kind.INSERTED, id, row));
+    }
+
+    void updated(int id, T row) {
+        publish(new Change<>(Kind.UPDATED, id, row));
+    }
+
+    void deleted(int id) {
+        publish(new Change<>(Kind.DELETED, id, null));
+    }
+
+    void reloaded() {
+        publish(new Change<>(Kind.RELOADED, 0, null));
+    }
+
+    private void publish(Change<T> change) {
+        // Nothing to do without listeners, which also keeps benchmarks working without the FX toolkit
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (Platform.isFxApplicationThread()) {
+            deliver(change);
+        } else {
+            Platform.runLater(() -> deliver(change));
+        }
+    }
+
+    private void deliver(Change<T> change) {
+        for (Consumer<Change<T>> listener : listeners) {
+            listener.accept(change);
+        }
+    }
+
+    /**
+     * Patches a list in ID order with one change: the row is replaced, added at its place or removed, depending on
+     * whether it is in the list and passes the filter. Use from the FX thread.
+     * @param list List to patch
+     * @param change INSERTED, UPDATED or DELETED change
+     * @param idOf Row ID
+     * @param filter Rows the list should hold
+     * @param <T> Row type
+     */
+    public static <T> void apply(ObservableList<T> list, Change<T> change, ToIntFunction<T> idOf,
+                                 Predicate<T> filter) {
+        int index = indexOf(list, change.getId(), idOf);
+        boolean keep = change.getRow() != null && filter.test(change.getRow());
+        if (index >= 0) {
+            if (keep) {
+                list.set(index, change.getRow());
+            } else {
+                list.remove(index);
+            }
+        } else if (keep) {
+            list.add(-index - 1, change.getRow());
+        }
+    }
+
+    /**
+     * @return Index of the row with the ID, or (-(insertion point) - 1) as Collections.binarySearch gives
+     */
+    private static <T> int indexOf(List<T> list, int id, ToIntFunction<T> idOf) {
+        int low = 0;
+        int high = list.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleId = idOf.applyAsInt(list.get(middle));
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+}
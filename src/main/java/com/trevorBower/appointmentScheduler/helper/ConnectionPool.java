@@ -0,0 +1,476 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of physical database connections shared by the query helpers. Connections handed out by
+ * {@link #borrow()} are wrappers; calling close() on them returns the physical connection to the pool.
+ * Each physical connection keeps its own prepared statement cache (see {@link StatementCache}).
+ */
+public class ConnectionPool {
+
+    private final String jdbcUrl;
+    private final String userName;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int validationTimeoutSeconds;
+
+    // Idle connections, most recently returned first so warm connections are reused
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    // One permit per connection that may be checked out at the same time
+    private final Semaphore permits;
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    // Statement settings
+    private volatile int statementCacheSize = 0;
+    private volatile long leakDetectionThresholdMillis = 0;
+    private ScheduledFuture<?> leakReporter;  // Periodic leak check, while leak detection is on
+    private final Set<StatementCache.CachedStatement> openStatements = ConcurrentHashMap.newKeySet();
+
+    // Metrics
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong leakedStatementCount = new AtomicLong();
+
+    /**
+     * Creates pool and opens the minimum number of connections
+     * @param jdbcUrl JDBC URL of database
+     * @param userName Database username
+     * @param password Database password
+     * @param minSize Connections kept open even when idle
+     * @param maxSize Maximum connections open at the same time
+     * @param borrowTimeoutMillis Time to wait for a free connection before failing
+     * @param idleTimeoutMillis Time an idle connection above minSize is kept before being closed
+     * @param validationTimeoutSeconds Time allowed for the validation check when a connection is borrowed
+     * @throws SQLException If initial connections cannot be opened
+     */
+    public ConnectionPool(String jdbcUrl, String userName, String password, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, int validationTimeoutSeconds)
+            throws SQLException {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min " + minSize + ", max " + maxSize);
+        }
+        this.jdbcUrl = jdbcUrl;
+        this.userName = userName;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        // Open minimum connections up front so the first queries don't pay for the handshake
+        for (int i = 0; i < minSize; i++) {
+            idleConnections.offerLast(createConnection());
+        }
+
+        // Background thread closes connections that have been idle too long
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionPeriod = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, evictionPeriod, evictionPeriod,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the borrow timeout if all connections are in use.
+     * The returned connection must be closed to give it back to the pool.
+     * @return Validated connection
+     * @throws SQLException If pool is closed, borrow times out, or new connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        totalWaitNanos.addAndGet(System.nanoTime() - waitStart);
+
+        try {
+            PooledConnection pooled;
+            // Reuse idle connections that still pass validation, otherwise open a new one
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                if (isValid(pooled)) {
+                    break;
+                }
+                validationFailureCount.incrementAndGet();
+                destroy(pooled);
+            }
+            if (pooled == null) {
+                pooled = createConnection();
+            }
+            borrowCount.incrementAndGet();
+            return pooled.checkOut();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Sets how many prepared statements each connection keeps cached. 0 disables caching.
+     * @param statementCacheSize Statements cached per connection
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Enables logging of statements left open longer than the threshold. 0 disables leak detection.
+     * @param leakDetectionThresholdMillis Time a statement may stay open before it is reported
+     */
+    public synchronized void setLeakDetectionThreshold(long leakDetectionThresholdMillis) {
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+        // Replace the check scheduled for the previous threshold, if any
+        if (leakReporter != null) {
+            leakReporter.cancel(false);
+            leakReporter = null;
+        }
+        if (leakDetectionThresholdMillis > 0) {
+            long period = Math.max(1000, leakDetectionThresholdMillis / 2);
+            leakReporter = evictor.scheduleWithFixedDelay(this::reportLeakedStatements, period, period,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops handing out new ones. Connections currently borrowed are closed when
+     * they are returned.
+     */
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    // Metrics
+
+    /**
+     * @return Number of connections currently borrowed
+     */
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * @return Number of open connections waiting in the pool
+     */
+    public int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * @return Number of open physical connections
+     */
+    public int getTotalCount() {
+        return totalConnections.get();
+    }
+
+    /**
+     * @return Number of successful borrows since the pool was created
+     */
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    /**
+     * @return Number of borrows that failed because no connection became free in time
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * @return Number of idle connections discarded because they failed validation
+     */
+    public long getValidationFailureCount() {
+        return validationFailureCount.get();
+    }
+
+    /**
+     * @return Average time in milliseconds spent waiting for a free connection
+     */
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.get();
+        return borrows == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / borrows;
+    }
+
+    /**
+     * @return Number of prepareStatement calls served from a statement cache
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    /**
+     * @return Number of prepareStatement calls that had to prepare a new statement
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     * @return Number of statements still open when their connection was returned
+     */
+    public long getLeakedStatementCount() {
+        return leakedStatementCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool[active=" + getActiveCount() + ", idle=" + getIdleCount() + ", total=" + getTotalCount()
+                + ", max=" + maxSize + ", borrows=" + getBorrowCount() + ", created=" + createdCount.get()
+                + ", destroyed=" + destroyedCount.get() + ", timeouts=" + getTimeoutCount()
+                + ", validationFailures=" + getValidationFailureCount()
+                + ", avgWaitMs=" + String.format("%.3f", getAverageWaitMillis())
+                + ", statementCacheHits=" + getStatementCacheHits() + ", statementCacheMisses=" + getStatementCacheMisses()
+                + ", leakedStatements=" + getLeakedStatementCount() + "]";
+    }
+
+    // Internal
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(jdbcUrl, userName, password);
+        totalConnections.incrementAndGet();
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        try {
+            if (pooled.statementCache != null) {
+                pooled.statementCache.closeAll();
+            }
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.out.println("Error:" + e.getMessage());
+        }
+        totalConnections.decrementAndGet();
+        destroyedCount.incrementAndGet();
+    }
+
+    /**
+     * Returns a physical connection to the pool once its borrower closes it
+     * @param pooled Connection being returned
+     */
+    private void release(PooledConnection pooled) {
+        try {
+            // Put back any statements the borrower forgot to close
+            if (pooled.statementCache != null) {
+                int leaked = pooled.statementCache.reclaimOpenStatements();
+                if (leaked > 0) {
+                    leakedStatementCount.addAndGet(leaked);
+                    System.out.println("Warning: connection returned to pool with " + leaked + " open statement(s).");
+                }
+            }
+            // Don't let one borrower's transaction state leak into the next
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (closed || pooled.physical.isClosed()) {
+                destroy(pooled);
+            } else {
+                pooled.lastReturnedMillis = System.currentTimeMillis();
+                idleConnections.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Statement tracking (called by StatementCache)
+
+    void recordStatementCacheHit() {
+        statementCacheHits.incrementAndGet();
+    }
+
+    void recordStatementCacheMiss() {
+        statementCacheMisses.incrementAndGet();
+    }
+
+    boolean isLeakDetectionEnabled() {
+        return leakDetectionThresholdMillis > 0;
+    }
+
+    void trackOpenStatement(StatementCache.CachedStatement statement) {
+        if (isLeakDetectionEnabled()) {
+            openStatements.add(statement);
+        }
+    }
+
+    void untrackOpenStatement(StatementCache.CachedStatement statement) {
+        openStatements.remove(statement);
+    }
+
+    /**
+     * Logs each statement that has been open longer than the leak detection threshold, once per statement. Leaks are
+     * counted when the connection is returned, not here, so a statement reported here isn't counted twice.
+     */
+    private void reportLeakedStatements() {
+        long now = System.currentTimeMillis();
+        for (StatementCache.CachedStatement statement : openStatements) {
+            if (!statement.leakReported && now - statement.openedMillis > leakDetectionThresholdMillis) {
+                statement.leakReported = true;
+                System.out.println("Warning: statement open for " + (now - statement.openedMillis) + " ms: "
+                        + statement.sql());
+                if (statement.openedAt != null) {
+                    statement.openedAt.printStackTrace(System.out);
+                }
+            }
+        }
+    }
+
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> iterator = idleConnections.descendingIterator(); // Oldest first
+        while (iterator.hasNext() && totalConnections.get() > minSize) {
+            PooledConnection pooled = iterator.next();
+            if (now - pooled.lastReturnedMillis >= idleTimeoutMillis && idleConnections.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+        // Top back up to the minimum in case connections were lost
+        try {
+            while (!closed && totalConnections.get() < minSize) {
+                idleConnections.offerLast(createConnection());
+            }
+        } catch (SQLException e) {
+            System.out.println("Error:" + e.getMessage());
+        }
+    }
+
+    /**
+     * Physical connection owned by the pool
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private volatile long lastReturnedMillis = System.currentTimeMillis();
+        private StatementCache statementCache;  // Created on first prepareStatement
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * @return Statement cache of this connection, created on first use
+         */
+        private synchronized StatementCache getStatementCache() {
+            if (statementCache == null) {
+                statementCache = new StatementCache(ConnectionPool.this, physical, statementCacheSize);
+            }
+            return statementCache;
+        }
+
+        /**
+         * Creates a new wrapper for one borrower, so a stale reference held after close() can't reach the
+         * physical connection once it has been handed to someone else
+         * @return Wrapper connection
+         */
+        private Connection checkOut() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new BorrowedConnection(this));
+        }
+    }
+
+    /**
+     * Invocation handler behind the Connection given to a borrower
+     */
+    private class BorrowedConnection implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned = false;
+
+        private BorrowedConnection(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                    // Route prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) through the cache
+                    if (method.getName().equals("prepareStatement")
+                            && (args.length == 1 || (args.length == 2 && method.getParameterTypes()[1] == int.class))) {
+                        int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                        return pooled.getStatementCache().prepare((Connection) proxy, (String) args[0], autoGeneratedKeys);
+                    }
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -1,147 +1,386 @@
-package com.trevorBower.appointmentScheduler.helper;
-
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-
-public class CustomerQuery {
-
-    // Setters:
-
-    /**
-     * Inserts a new appointment into SQL database
-     * @param customerName Customer name
-     * @param address Customer address
-     * @param postalCode Customer postal code
-     * @param phoneNumber Customer phone number
-     * @param divisionId Division ID of customer
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int insertCustomer(String customerName, String address, String postalCode, String phoneNumber, int divisionId) throws SQLException {
-        String sql = "INSERT INTO customers (Customer_Name, Address, Postal_Code, Phone, Division_ID) VALUES(?, ?, ?, ?, ?)";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setString(1, customerName);
-        ps.setString(2, address);
-        ps.setString(3, postalCode);
-        ps.setString(4, phoneNumber);
-        ps.setInt(5, divisionId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates customer name in SQL database
-     * @param customerId Customer ID
-     * @param customerName Customer name
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateCustomerName(int customerId, String customerName) throws SQLException {
-        String sql = "UPDATE customers SET Customer_Name = ? WHERE Customer_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setString(1, customerName);
-        ps.setInt(2,customerId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates address name in SQL database
-     * @param customerId Customer ID
-     * @param address Customer address
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateCustomerAddress(int customerId, String address) throws SQLException {
-        String sql = "UPDATE customers SET Address = ? WHERE Customer_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setString(1, address);
-        ps.setInt(2,customerId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates customer postal code in SQL database
-     * @param customerId Customer ID
-     * @param postalCode Customer postal code
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateCustomerPostalCode(int customerId, String postalCode) throws SQLException {
-        String sql = "UPDATE customers SET Postal_Code = ? WHERE Customer_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setString(1, postalCode);
-        ps.setInt(2,customerId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates customer phone number in SQL database
-     * @param customerId Customer ID
-     * @param phoneNumber Customer phone number
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateCustomerPhone(int customerId, String phoneNumber) throws SQLException {
-        String sql = "UPDATE customers SET Phone = ? WHERE Customer_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setString(1, phoneNumber);
-        ps.setInt(2,customerId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates customer Division ID in SQL database
-     * @param customerId Customer ID
-     * @param divisionId Division ID of Customer
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int updateCustomerDivisionId(int customerId, int divisionId) throws SQLException {
-        String sql = "UPDATE customers SET Division_ID = ? WHERE Customer_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setInt(1, divisionId);
-        ps.setInt(2,customerId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-
-    /**
-     * Updates all specified customer values in SQL database
-     * @param customerId Customer ID
-     * @param customerName Customer
-     * @param address Customer
-     * @param postalCode Customer
-     * @param phoneNumber Customer
-     * @param divisionId Division ID of Customer
-     * @throws SQLException SQL query fails
-     */
-    public static void updateCustomerAll(int customerId, String customerName, String address, String postalCode,
-                                         String phoneNumber, int divisionId) throws SQLException {
-        updateCustomerName(customerId, customerName);
-        updateCustomerAddress(customerId, address);
-        updateCustomerPostalCode(customerId, postalCode);
-        updateCustomerPhone(customerId, phoneNumber);
-        updateCustomerDivisionId(customerId, divisionId);
-    }
-
-
-    // Delete
-
-    /**
-     * Deletes customer based on customer ID
-     * @param customerId Customer ID
-     * @return Number of rows changed by command
-     * @throws SQLException SQL query fails
-     */
-    public static int deleteCustomer(int customerId) throws SQLException {
-        String sql = "DELETE FROM customers WHERE Customer_ID = ?";
-        PreparedStatement ps = JDBC.connection.prepareStatement(sql);
-        ps.setInt(1, customerId);
-        int rowsAffected = ps.executeUpdate();
-        return rowsAffected;
-    }
-}
+package com.trevorBower.appointmentScheduler.helper;
+
+import com.trevorBower.appointmentScheduler.model.Customer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CustomerQuery {
+
+    // Customer columns joined with the state/province name, in the order readCustomer expects
+    private static final String customerSelect = "SELECT c.Customer_ID, c.Customer_Name, c.Address, c.Postal_Code, "
+            + "c.Phone, c.Division_ID, d.Division FROM customers c "
+            + "JOIN first_level_divisions d ON c.Division_ID = d.Division_ID";
+
+    // Columns updateCustomerFields may write
+    private static final Set<String> updatableColumns = Set.of("Customer_Name", "Address", "Postal_Code", "Phone",
+            "Division_ID");
+
+    // Setters:
+
+    /**
+     * Inserts a new appointment into SQL database
+     * @param customerName Customer name
+     * @param address Customer address
+     * @param postalCode Customer postal code
+     * @param phoneNumber Customer phone number
+     * @param divisionId Division ID of customer
+     * @return Inserted customer with its generated ID, or null if nothing was inserted or the driver returned no key
+     * @throws SQLException SQL query fails
+     */
+    public static Customer insertCustomer(String customerName, String address, String postalCode, String phoneNumber, int divisionId) throws SQLException {
+        String sql = "INSERT INTO customers (Customer_Name, Address, Postal_Code, Phone, Division_ID) VALUES(?, ?, ?, ?, ?)";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, customerName);
+            ps.setString(2, address);
+            ps.setString(3, postalCode);
+            ps.setString(4, phoneNumber);
+            ps.setInt(5, divisionId);
+            int rowsAffected = ps.executeUpdate();
+            ReferenceDataCache.invalidate();  // New customer ID for the appointment forms
+            Customer insertedRow = null;
+            if (rowsAffected > 0) {
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        int customerId = keys.getInt(1);
+                        CustomerSearchIndex.put(customerId, customerName, phoneNumber, postalCode);
+                        insertedRow = getCustomer(connection, customerId);  // Adds the division name
+                        ChangeFeed.customers.inserted(customerId, insertedRow);
+                    } else {
+                        CustomerSearchIndex.invalidate();  // Driver gave no key; reload on next search
+                        ChangeFeed.customers.reloaded();
+                    }
+                }
+            }
+            return insertedRow;
+        }
+    }
+
+    /**
+     * Updates customer name in SQL database
+     * @param customerId Customer ID
+     * @param customerName Customer name
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateCustomerName(int customerId, String customerName) throws SQLException {
+        String sql = "UPDATE customers SET Customer_Name = ? WHERE Customer_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, customerName);
+            ps.setInt(2,customerId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                ReferenceDataCache.invalidate();
+                CustomerSearchIndex.refresh(customerId);
+                ChangeFeed.customers.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates address name in SQL database
+     * @param customerId Customer ID
+     * @param address Customer address
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateCustomerAddress(int customerId, String address) throws SQLException {
+        String sql = "UPDATE customers SET Address = ? WHERE Customer_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, address);
+            ps.setInt(2,customerId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                ChangeFeed.customers.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates customer postal code in SQL database
+     * @param customerId Customer ID
+     * @param postalCode Customer postal code
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateCustomerPostalCode(int customerId, String postalCode) throws SQLException {
+        String sql = "UPDATE customers SET Postal_Code = ? WHERE Customer_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, postalCode);
+            ps.setInt(2,customerId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                CustomerSearchIndex.refresh(customerId);
+                ChangeFeed.customers.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates customer phone number in SQL database
+     * @param customerId Customer ID
+     * @param phoneNumber Customer phone number
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateCustomerPhone(int customerId, String phoneNumber) throws SQLException {
+        String sql = "UPDATE customers SET Phone = ? WHERE Customer_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, phoneNumber);
+            ps.setInt(2,customerId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                CustomerSearchIndex.refresh(customerId);
+                ChangeFeed.customers.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates customer Division ID in SQL database
+     * @param customerId Customer ID
+     * @param divisionId Division ID of Customer
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int updateCustomerDivisionId(int customerId, int divisionId) throws SQLException {
+        String sql = "UPDATE customers SET Division_ID = ? WHERE Customer_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, divisionId);
+            ps.setInt(2,customerId);
+            int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                ChangeFeed.customers.reloaded();  // Open tables re-read; no extra query here
+            }
+            return rowsAffected;
+        }
+    }
+
+    /**
+     * Updates all specified customer values in SQL database with a single statement
+     * @param customerId Customer ID
+     * @param customerName Customer
+     * @param address Customer
+     * @param postalCode Customer
+     * @param phoneNumber Customer
+     * @param divisionId Division ID of Customer
+     * @return Customer as updated, or null if no row matched
+     * @throws SQLException SQL query fails
+     */
+    public static Customer updateCustomerAll(int customerId, String customerName, String address, String postalCode,
+                                         String phoneNumber, int divisionId) throws SQLException {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("Customer_Name", customerName);
+        columns.put("Address", address);
+        columns.put("Postal_Code", postalCode);
+        columns.put("Phone", phoneNumber);
+        columns.put("Division_ID", divisionId);
+        return updateCustomerFields(customerId, columns);
+    }
+
+    /**
+     * Updates only the given customer columns in SQL database with a single statement. Does nothing if no columns
+     * are given.
+     * @param customerId Customer ID
+     * @param changedColumns Column name (Customer_Name, Address, Postal_Code, Phone or Division_ID) to new value
+     * @return Customer as updated, or null if nothing was given to update or no row matched
+     * @throws SQLException SQL query fails
+     */
+    public static Customer updateCustomerFields(int customerId, Map<String, Object> changedColumns)
+            throws SQLException {
+        if (changedColumns.isEmpty()) {
+            return null;  // No-op save, skip the database entirely
+        }
+        StringBuilder sql = new StringBuilder("UPDATE customers SET ");
+        for (String column : changedColumns.keySet()) {
+            // Column names can't be bound as parameters, so only known columns are allowed into the SQL
+            if (!updatableColumns.contains(column)) {
+                throw new IllegalArgumentException("Not an updatable customer column: " + column);
+            }
+            if (sql.length() > "UPDATE customers SET ".length()) {
+                sql.append(", ");
+            }
+            sql.append(column).append(" = ?");
+        }
+        sql.append(" WHERE Customer_ID = ?");
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Object value : changedColumns.values()) {
+                ps.setObject(index++, value);
+            }
+            ps.setInt(index, customerId);
+            int rowsAffected = ps.executeUpdate();
+            if (changedColumns.containsKey("Customer_Name")) {
+                ReferenceDataCache.invalidate();
+            }
+            if (changedColumns.containsKey("Customer_Name") || changedColumns.containsKey("Phone")
+                    || changedColumns.containsKey("Postal_Code")) {
+                CustomerSearchIndex.refresh(customerId);
+            }
+            if (rowsAffected == 0) {
+                return null;
+            }
+            Customer updatedRow = getCustomer(connection, customerId);  // Re-read for the division name
+            ChangeFeed.customers.updated(customerId, updatedRow);
+            return updatedRow;
+        }
+    }
+
+
+    // Getters
+
+    /**
+     * Get one page of customers by keyset: the rows after a known customer ID, in customer ID order
+     * @param afterCustomerId Last customer ID of the previous page, or 0 for the first page
+     * @param pageSize Maximum rows to return
+     * @return Up to pageSize customers
+     * @throws SQLException SQL query fails
+     */
+    public static List<Customer> getCustomerPage(int afterCustomerId, int pageSize) throws SQLException {
+        List<Customer> customers = new ArrayList<>(pageSize);
+        String sql = customerSelect + " WHERE c.Customer_ID > ? ORDER BY c.Customer_ID LIMIT ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, afterCustomerId);
+            ps.setInt(2, pageSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    customers.add(readCustomer(rs));
+                }
+            }
+        }
+        return customers;
+    }
+
+    /**
+     * Finds the customer ID a number of rows past a known one, reading only the primary key index
+     * @param afterCustomerId Known customer ID, or 0 for the start of the table
+     * @param skip Rows to skip after it
+     * @return Customer ID of the row after the skipped ones, or null if the table ends first
+     * @throws SQLException SQL query fails
+     */
+    public static Integer getCustomerIdAfter(int afterCustomerId, int skip) throws SQLException {
+        String sql = "SELECT Customer_ID FROM customers WHERE Customer_ID > ? ORDER BY Customer_ID LIMIT 1 OFFSET ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, afterCustomerId);
+            ps.setInt(2, skip);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    /**
+     * @return Number of customers in the table
+     * @throws SQLException SQL query fails
+     */
+    public static int countCustomers() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM customers";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Searches customer name, phone number and postal code through CustomerSearchIndex, then reads the matches
+     * @param query Search text (any part of a name, phone number or postal code, ignoring case)
+     * @param limit Maximum customers to return
+     * @return Matching customers, in customer ID order
+     * @throws SQLException SQL query fails
+     */
+    public static List<Customer> searchCustomers(String query, int limit) throws SQLException {
+        List<Integer> customerIds = CustomerSearchIndex.search(query, limit);
+        List<Customer> customers = new ArrayList<>(customerIds.size());
+        if (customerIds.isEmpty()) {
+            return customers;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(customerIds.size(), "?"));
+        String sql = customerSelect + " WHERE c.Customer_ID IN (" + placeholders + ") ORDER BY c.Customer_ID";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < customerIds.size(); i++) {
+                ps.setInt(i + 1, customerIds.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    customers.add(readCustomer(rs));
+                }
+            }
+        }
+        return customers;
+    }
+
+    /**
+     * Reads one customer on an open connection
+     * @param connection Connection to read with
+     * @param customerId Customer ID
+     * @return Customer, or null if there is none with the ID
+     * @throws SQLException SQL query fails
+     */
+    private static Customer getCustomer(Connection connection, int customerId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(customerSelect + " WHERE c.Customer_ID = ?")) {
+            ps.setInt(1, customerId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? readCustomer(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Reads the current row of a query built on customerSelect
+     * @param rs Result set positioned on a row
+     * @return Customer
+     * @throws SQLException Column can't be read
+     */
+    private static Customer readCustomer(ResultSet rs) throws SQLException {
+        return new Customer(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                rs.getInt(6), rs.getString(7));
+    }
+
+    // Delete
+
+    /**
+     * Deletes customer based on customer ID
+     * @param customerId Customer ID
+     * @return Number of rows changed by command
+     * @throws SQLException SQL query fails
+     */
+    public static int deleteCustomer(int customerId) throws SQLException {
+        String sql = "DELETE FROM customers WHERE Customer_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, customerId);
+            int rowsAffected = ps.executeUpdate();
+            ReferenceDataCache.invalidate();
+            CustomerSearchIndex.remove(customerId);
+            if (rowsAffected > 0) {
+                ChangeFeed.customers.deleted(customerId);
+            }
+            return rowsAffected;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory trigram index over customer name, phone and postal code for as-you-type search. Each customer's three
+ * fields are lower-cased into one search text; every three-character run in it maps to the IDs of customers
+ * containing it. A search of three or more characters intersects the ID lists of its trigrams, shortest first, and
+ * confirms each candidate with a substring check, so it touches only customers that share the rarest trigram.
+ * Shorter searches scan the texts directly.
+ * Loaded from the customers table on first use and kept in sync by CustomerQuery after each successful insert, update
+ * or delete.
+ */
+public abstract class CustomerSearchIndex {
+
+    private static final int loadFetchSize = 1000;  // Rows per round trip while loading
+    private static final char fieldSeparator = '\n';  // Never in a search, so trigrams spanning two fields never match
+    private static final Map<Long, IdList> idsByTrigram = new HashMap<>();
+    private static final TreeMap<Integer, String> textById = new TreeMap<>();  // Customer ID order
+    private static boolean loaded = false;
+
+    /**
+     * Growable list of customer IDs for one trigram. Kept unsorted after out-of-order adds until next read.
+     */
+    private static class IdList {
+        private int[] ids = new int[4];
+        private int size = 0;
+        private boolean sorted = true;
+
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            if (size > 0 && ids[size - 1] > id) {
+                sorted = false;
+            }
+            ids[size++] = id;
+        }
+
+        private void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        private void sort() {
+            if (!sorted) {
+                Arrays.sort(ids, 0, size);
+                sorted = true;
+            }
+        }
+    }
+
+    // Loading
+
+    /**
+     * Rebuilds the index from the customers table
+     * @throws SQLException SQL query fails (index is left unloaded)
+     */
+    public static synchronized void load() throws SQLException {
+        String sql = "SELECT Customer_ID, Customer_Name, Phone, Postal_Code FROM customers ORDER BY Customer_ID";
+        clear();
+        long begin = System.currentTimeMillis();
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setFetchSize(loadFetchSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    add(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4));
+                }
+            }
+        } catch (SQLException e) {
+            clear();
+            throw e;
+        }
+        loaded = true;
+        System.out.println("Indexed " + textById.size() + " customers under " + idsByTrigram.size() + " trigrams in "
+                + (System.currentTimeMillis() - begin) + " ms");
+    }
+
+    /**
+     * Drops the index; the next search reloads it from the database
+     */
+    public static synchronized void invalidate() {
+        clear();
+    }
+
+    private static void ensureLoaded() throws SQLException {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    private static void clear() {
+        idsByTrigram.clear();
+        textById.clear();
+        loaded = false;
+    }
+
+    // Sync
+
+    /**
+     * Indexes an inserted or updated customer, replacing its previous entry. Does nothing until the index is loaded,
+     * since loading reads the committed row anyway.
+     * @param customerId Customer ID
+     * @param customerName Customer name
+     * @param phone Customer phone number
+     * @param postalCode Customer postal code
+     */
+    public static synchronized void put(int customerId, String customerName, String phone, String postalCode) {
+        if (loaded) {
+            removeEntry(customerId);
+            add(customerId, customerName, phone, postalCode);
+        }
+    }
+
+    /**
+     * Drops a deleted customer
+     * @param customerId Customer ID
+     */
+    public static synchronized void remove(int customerId) {
+        removeEntry(customerId);
+    }
+
+    /**
+     * Re-reads one customer's searchable fields, for updates that only changed some of its columns
+     * @param customerId Customer ID
+     * @throws SQLException SQL query fails
+     */
+    public static void refresh(int customerId) throws SQLException {
+        synchronized (CustomerSearchIndex.class) {
+            if (!loaded) {
+                return;
+            }
+        }
+        String sql = "SELECT Customer_Name, Phone, Postal_Code FROM customers WHERE Customer_ID = ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, customerId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    put(customerId, rs.getString(1), rs.getString(2), rs.getString(3));
+                } else {
+                    remove(customerId);
+                }
+            }
+        }
+    }
+
+    private static void add(int customerId, String customerName, String phone, String postalCode) {
+        String text = searchText(customerName, phone, postalCode);
+        textById.put(customerId, text);
+        for (long trigram : trigrams(text)) {
+            idsByTrigram.computeIfAbsent(trigram, key -> new IdList()).add(customerId);
+        }
+    }
+
+    private static void removeEntry(int customerId) {
+        String text = textById.remove(customerId);
+        if (text == null) {
+            return;
+        }
+        for (long trigram : trigrams(text)) {
+            IdList ids = idsByTrigram.get(trigram);
+            if (ids != null) {
+                ids.remove(customerId);
+                if (ids.size == 0) {
+                    idsByTrigram.remove(trigram);
+                }
+            }
+        }
+    }
+
+    // Search
+
+    /**
+     * Finds customers whose name, phone number or postal code contains the search text, ignoring case
+     * @param query Search text
+     * @param limit Maximum IDs to return
+     * @return Matching customer IDs, lowest first
+     * @throws SQLException Index had to be loaded and the SQL query failed
+     */
+    public static synchronized List<Integer> search(String query, int limit) throws SQLException {
+        ensureLoaded();
+        String needle = normalize(query);
+        List<Integer> matches = new ArrayList<>();
+        if (needle.isEmpty()) {
+            return matches;
+        }
+        if (needle.length() < 3) {
+            // Too short for a trigram; check every customer
+            for (Map.Entry<Integer, String> entry : textById.entrySet()) {
+                if (entry.getValue().contains(needle)) {
+                    matches.add(entry.getKey());
+                    if (matches.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return matches;
+        }
+
+        // Gather each trigram's IDs; any trigram with no IDs means no match
+        long[] needleTrigrams = trigrams(needle);
+        IdList[] lists = new IdList[needleTrigrams.length];
+        for (int i = 0; i < needleTrigrams.length; i++) {
+            lists[i] = idsByTrigram.get(needleTrigrams[i]);
+            if (lists[i] == null) {
+                return matches;
+            }
+            lists[i].sort();
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        // Walk the shortest list, keeping IDs found in every other list and whose text really contains the search
+        IdList shortest = lists[0];
+        for (int i = 0; i < shortest.size && matches.size() < limit; i++) {
+            int id = shortest.ids[i];
+            boolean inAll = true;
+            for (int j = 1; j < lists.length && inAll; j++) {
+                inAll = Arrays.binarySearch(lists[j].ids, 0, lists[j].size, id) >= 0;
+            }
+            if (inAll && textById.get(id).contains(needle)) {
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Checks one customer against a search the same way search() does, without the index
+     * @param query Search text
+     * @param customerName Customer name
+     * @param phone Customer phone number
+     * @param postalCode Customer postal code
+     * @return True if search() would return the customer
+     */
+    public static boolean matches(String query, String customerName, String phone, String postalCode) {
+        String needle = normalize(query);
+        return !needle.isEmpty() && searchText(customerName, phone, postalCode).contains(needle);
+    }
+
+    private static String searchText(String customerName, String phone, String postalCode) {
+        return normalize(customerName) + fieldSeparator + normalize(phone) + fieldSeparator + normalize(postalCode);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return Each distinct three-character run of the text, packed as 16 bits per character
+     */
+    private static long[] trigrams(String text) {
+        int count = Math.max(0, text.length() - 2);
+        long[] trigrams = new long[count];
+        for (int i = 0; i < count; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(trigrams).distinct().toArray();
+    }
+}
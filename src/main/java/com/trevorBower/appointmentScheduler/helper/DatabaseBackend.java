@@ -0,0 +1,56 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+/**
+ * Database engines the query layer can run against. Selected with the db.backend setting in database.properties
+ * or the -Ddb.backend system property.
+ */
+public enum DatabaseBackend {
+    /** client_schedule MySQL server provided by WGU */
+    MYSQL("com.mysql.cj.jdbc.Driver", false),
+    /** Embedded H2 in MySQL mode; schema and starter data are created on first connect */
+    H2("org.h2.Driver", true);
+
+    private final String driver;
+    private final boolean bootstrapSchema;
+
+    DatabaseBackend(String driver, boolean bootstrapSchema) {
+        this.driver = driver;
+        this.bootstrapSchema = bootstrapSchema;
+    }
+
+    /**
+     * @return JDBC driver class name
+     */
+    public String getDriver() {
+        return driver;
+    }
+
+    /**
+     * @return True if the schema has to be created by SchemaBootstrap before the Query classes can use it
+     */
+    public boolean isBootstrapSchema() {
+        return bootstrapSchema;
+    }
+
+    /**
+     * @return Prefix of this backend's keys in database.properties
+     */
+    public String getPropertyPrefix() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Finds a backend by name, ignoring case
+     * @param name Backend name from configuration
+     * @return Matching backend
+     * @throws IllegalArgumentException If no backend has that name
+     */
+    public static DatabaseBackend fromName(String name) {
+        for (DatabaseBackend backend : values()) {
+            if (backend.name().equalsIgnoreCase(name.trim())) {
+                return backend;
+            }
+        }
+        throw new IllegalArgumentException("Unknown database backend: " + name);
+    }
+}
@@ -0,0 +1,194 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work on background threads so the JavaFX Application Thread never waits on JDBC.
+ * Controllers submit work here and apply the result with onFxThread, which hands it back to the FX thread.
+ */
+public abstract class DatabaseExecutor {
+
+    private static final int workerThreads = 4;  // Below the pool maximum so the UI can't exhaust connections
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ThreadFactory threadFactory = runnable -> {
+        Thread thread = new Thread(runnable, "db-worker-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);  // Don't keep the JVM alive after the last window closes
+        return thread;
+    };
+    private static final ExecutorService executor = Executors.newFixedThreadPool(workerThreads, threadFactory);
+
+    /**
+     * Database work that returns a value
+     * @param <T> Result type
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Runs database work on a background thread
+     * @param work Work to run; must not touch JavaFX controls
+     * @param <T> Result type
+     * @return Future completed with the result, or exceptionally with whatever the work threw. Cancelling it skips
+     * the work if it hasn't started; work already running finishes (JDBC calls can't be safely interrupted) but its
+     * result is dropped.
+     */
+    public static <T> CompletableFuture<T> submit(Work<T> work) {
+        return submit(work, null);
+    }
+
+    /**
+     * Runs database work on a background thread, handing a result that arrives after cancellation to onDropped
+     * @param work Work to run; must not touch JavaFX controls
+     * @param onDropped Called on the background thread with a result finished after the future was cancelled, so
+     * it can be released; null if there is nothing to release
+     * @param <T> Result type
+     * @return Future completed with the result, or exceptionally with whatever the work threw
+     */
+    public static <T> CompletableFuture<T> submit(Work<T> work, Consumer<T> onDropped) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = executor.submit(() -> {
+            if (result.isDone()) {
+                return;  // Cancelled while queued
+            }
+            T value;
+            try {
+                value = work.call();
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (!result.complete(value) && onDropped != null) {
+                onDropped.accept(value);  // Cancelled while running
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                running.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs database work on a background thread and applies its outcome on the FX thread
+     * @param work Work to run; must not touch JavaFX controls
+     * @param onSuccess Called with the result on the FX thread
+     * @param onFailure Called with the cause of failure on the FX thread
+     * @param <T> Result type
+     * @return Future for the work
+     */
+    public static <T> CompletableFuture<T> run(Work<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        CompletableFuture<T> future = submit(work);
+        onFxThread(future, onSuccess, onFailure);
+        return future;
+    }
+
+    /**
+     * Applies the outcome of background work on the FX thread. Cancelled work calls neither handler, since a newer
+     * request has replaced it.
+     * @param future Background work
+     * @param onSuccess Called with the result on the FX thread
+     * @param onFailure Called with the cause of failure on the FX thread
+     * @param <T> Result type
+     */
+    public static <T> void onFxThread(CompletableFuture<T> future, Consumer<T> onSuccess,
+                                      Consumer<Throwable> onFailure) {
+        future.whenComplete((value, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof CancellationException) {
+                return;
+            }
+            Platform.runLater(() -> {
+                if (cause == null) {
+                    onSuccess.accept(value);
+                } else {
+                    onFailure.accept(cause);
+                }
+            });
+        });
+    }
+
+    /**
+     * Keeps only the newest request of one kind, such as an appointment filter, cancelling the one it replaces
+     * so a slow stale result can never overwrite a newer one. Use from the FX thread.
+     */
+    public static class LatestRequest {
+        private CompletableFuture<?> current;
+
+        /**
+         * Cancels the previous request, if still running, and submits a new one
+         * @param work Work to run
+         * @param onSuccess Called with the result on the FX thread, unless a newer request was submitted first
+         * @param onFailure Called with the cause of failure on the FX thread, unless a newer request was submitted
+         * @param <T> Result type
+         * @return Future for the new request
+         */
+        public <T> CompletableFuture<T> submit(Work<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+            return submit(work, onSuccess, onFailure, null);
+        }
+
+        /**
+         * Cancels the previous request, if still running, and submits a new one whose result holds something to
+         * release, such as a temporary file
+         * @param work Work to run
+         * @param onSuccess Called with the result on the FX thread, unless a newer request was submitted first
+         * @param onFailure Called with the cause of failure on the FX thread, unless a newer request was submitted
+         * @param onDropped Called with a result that was produced but not passed to onSuccess, because the request
+         * was cancelled or replaced first; runs on the background or FX thread, whichever dropped it
+         * @param <T> Result type
+         * @return Future for the new request
+         */
+        public <T> CompletableFuture<T> submit(Work<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure,
+                                               Consumer<T> onDropped) {
+            cancel();
+            CompletableFuture<T> future = DatabaseExecutor.submit(work, onDropped);
+            current = future;
+            onFxThread(future, value -> {
+                if (current == future) {
+                    current = null;
+                    onSuccess.accept(value);
+                } else if (onDropped != null) {
+                    onDropped.accept(value);  // Finished, but replaced or cancelled before it was delivered
+                }
+            }, error -> {
+                if (current == future) {
+                    current = null;
+                    onFailure.accept(error);
+                }
+            });
+            return future;
+        }
+
+        /**
+         * @return True if a request is waiting for its result
+         */
+        public boolean isPending() {
+            return current != null;
+        }
+
+        /**
+         * Cancels the current request, if any
+         */
+        public void cancel() {
+            if (current != null) {
+                current.cancel(false);
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory copy of the countries and first_level_divisions tables, loaded once at startup. These rows almost
+ * never change, so every country/division lookup is answered from here instead of the database.
+ * Each load builds a new immutable snapshot and swaps it in whole, so readers never see a half-built dictionary.
+ * Lookups by ID binary search sorted int arrays and lookups by name hit a HashMap, so neither allocates.
+ */
+public abstract class GeographyDictionary {
+
+    private static volatile Geography current;  // Null until loaded
+
+    /**
+     * One immutable copy of the geography tables
+     */
+    private static final class Geography {
+        private final int[] countryIds;  // Sorted
+        private final String[] countryNames;  // Parallel to countryIds
+        private final List<String> countryNameList;
+        private final Map<String, Integer> countryIdByName;
+        private final int[] divisionIds;  // Sorted
+        private final String[] divisionNames;  // Parallel to divisionIds
+        private final int[] divisionCountryIds;  // Parallel to divisionIds
+        private final Map<String, Integer> divisionIdByName;
+        private final List<List<String>> divisionsByCountry;  // Parallel to countryIds
+
+        private Geography(int[] countryIds, String[] countryNames, int[] divisionIds, String[] divisionNames,
+                          int[] divisionCountryIds) {
+            this.countryIds = countryIds;
+            this.countryNames = countryNames;
+            this.countryNameList = Collections.unmodifiableList(Arrays.asList(countryNames.clone()));
+            this.countryIdByName = new HashMap<>();
+            for (int i = 0; i < countryIds.length; i++) {
+                countryIdByName.put(countryNames[i], countryIds[i]);
+            }
+            this.divisionIds = divisionIds;
+            this.divisionNames = divisionNames;
+            this.divisionCountryIds = divisionCountryIds;
+            this.divisionIdByName = new HashMap<>();
+            List<List<String>> divisions = new ArrayList<>();
+            for (int i = 0; i < countryIds.length; i++) {
+                divisions.add(new ArrayList<>());
+            }
+            for (int i = 0; i < divisionIds.length; i++) {
+                divisionIdByName.put(divisionNames[i], divisionIds[i]);
+                int country = Arrays.binarySearch(countryIds, divisionCountryIds[i]);
+                if (country >= 0) {
+                    divisions.get(country).add(divisionNames[i]);
+                }
+            }
+            for (int i = 0; i < countryIds.length; i++) {
+                divisions.set(i, Collections.unmodifiableList(divisions.get(i)));
+            }
+            this.divisionsByCountry = divisions;
+        }
+    }
+
+    // Loading
+
+    /**
+     * Reads both tables and replaces the dictionary. Called at startup; call again to pick up added rows.
+     * @throws SQLException SQL query fails (the previous dictionary stays in use)
+     */
+    public static void reload() throws SQLException {
+        List<Integer> countryIds = new ArrayList<>();
+        List<String> countryNames = new ArrayList<>();
+        List<Integer> divisionIds = new ArrayList<>();
+        List<String> divisionNames = new ArrayList<>();
+        List<Integer> divisionCountryIds = new ArrayList<>();
+
+        try (Connection connection = JDBC.getConnection()) {
+            String sql = "SELECT Country_ID, Country FROM countries ORDER BY Country_ID";
+            try (PreparedStatement ps = connection.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    countryIds.add(rs.getInt(1));
+                    countryNames.add(rs.getString(2));
+                }
+            }
+            sql = "SELECT Division_ID, Division, Country_ID FROM first_level_divisions ORDER BY Division_ID";
+            try (PreparedStatement ps = connection.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    divisionIds.add(rs.getInt(1));
+                    divisionNames.add(rs.getString(2));
+                    divisionCountryIds.add(rs.getInt(3));
+                }
+            }
+        }
+
+        current = new Geography(toArray(countryIds), countryNames.toArray(new String[0]), toArray(divisionIds),
+                divisionNames.toArray(new String[0]), toArray(divisionCountryIds));
+    }
+
+    /**
+     * @return True if the dictionary has been loaded
+     */
+    public static boolean isLoaded() {
+        return current != null;
+    }
+
+    private static Geography get() throws SQLException {
+        Geography geography = current;
+        if (geography == null) {
+            reload();  // Not loaded at startup (e.g. the database was down); try now
+            geography = current;
+        }
+        return geography;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    // Countries
+
+    /**
+     * @return Country names in country ID order
+     * @throws SQLException Dictionary had to be loaded and the SQL query failed
+     */
+    public static List<String> getCountryNames() throws SQLException {
+        return get().countryNameList;
+    }
+
+    /**
+     * @param country Country name
+     * @return Country ID, or 0 if not found
+     * @throws SQLException Dictionary had to be loaded and the SQL query failed
+     */
+    public static int getCountryId(String country) throws SQLException {
+        Integer countryId = get().countryIdByName.get(country);
+        return countryId == null ? 0 : countryId;
+    }
+
+    /**
+     * @param countryId Country ID
+     * @return Country name, or null if not found
+     * @throws SQLException Dictionary had to be loaded and the SQL query failed
+     */
+    public static String getCountryName(int countryId) throws SQLException {
+        Geography geography = get();
+        int index = Arrays.binarySearch(geography.countryIds, countryId);
+        return index < 0 ? null : geography.countryNames[index];
+    }
+
+    // Divisions
+
+    /**
+     * @param countryId Country ID
+     * @return State/province names of the country in division ID order, or an empty list if not found
+     * @throws SQLException Dictionary had to be loaded and the SQL query failed
+     */
+    public static List<String> getDivisionNames(int countryId) throws SQLException {
+        Geography geography = get();
+        int index = Arrays.binarySearch(geography.countryIds, countryId);
+        return index < 0 ? Collections.emptyList() : geography.divisionsByCountry.get(index);
+    }
+
+    /**
+     * @param division Division name
+     * @return Division ID, or 0 if not found
+     * @throws SQLException Dictionary had to be loaded and the SQL query failed
+     */
+    public static int getDivisionId(String division) throws SQLException {
+        Integer divisionId = get().divisionIdByName.get(division);
+        return divisionId == null ? 0 : divisionId;
+    }
+
+    /**
+     * @param divisionId Division ID
+     * @return Division name, or null if not found
+     * @throws SQLException Dictionary had to be loaded and the SQL query failed
+     */
+    public static String getDivisionName(int divisionId) throws SQLException {
+        Geography geography = get();
+        int index = Arrays.binarySearch(geography.divisionIds, divisionId);
+        return index < 0 ? null : geography.divisionNames[index];
+    }
+
+    /**
+     * @param divisionId Division ID
+     * @return ID of the country the division belongs to, or 0 if not found
+     * @throws SQLException Dictionary had to be loaded and the SQL query failed
+     */
+    public static int getCountryIdByDivisionId(int divisionId) throws SQLException {
+        Geography geography = get();
+        int index = Arrays.binarySearch(geography.divisionIds, divisionId);
+        return index < 0 ? 0 : geography.divisionCountryIds[index];
+    }
+}
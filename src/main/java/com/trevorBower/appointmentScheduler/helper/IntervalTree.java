@@ -0,0 +1,193 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+/**
+ * Augmented AVL tree of half-open time intervals [start, end), ordered by start then ID. Each node also keeps the
+ * largest end in its subtree, so overlap searches skip every subtree that ends before the query starts.
+ * Not thread safe; AppointmentConflictIndex guards access.
+ */
+class IntervalTree {
+
+    private static class Node {
+        private final long start;
+        private final long end;
+        private final int id;
+        private long maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long start, long end, int id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private int size = 0;
+
+    /**
+     * @return Number of intervals in the tree
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds an interval. The caller makes sure the ID is not already present.
+     * @param id Appointment ID
+     * @param start Start (epoch seconds, UTC)
+     * @param end End (epoch seconds, UTC)
+     */
+    void insert(int id, long start, long end) {
+        root = insert(root, new Node(start, end, id));
+        size++;
+    }
+
+    /**
+     * Removes an interval
+     * @param id Appointment ID
+     * @param start Start the interval was inserted with
+     * @return True if the interval was found
+     */
+    boolean remove(int id, long start) {
+        int before = size;
+        root = remove(root, id, start);
+        return size < before;
+    }
+
+    /**
+     * Finds any interval overlapping [start, end)
+     * @param start Query start (epoch seconds, UTC)
+     * @param end Query end (epoch seconds, UTC)
+     * @param excludeId ID to ignore (the appointment being modified), or -1
+     * @return ID of an overlapping interval, or -1 if none
+     */
+    int findAnyOverlap(long start, long end, int excludeId) {
+        return findAnyOverlap(root, start, end, excludeId);
+    }
+
+    private static int findAnyOverlap(Node node, long start, long end, int excludeId) {
+        if (node == null || node.maxEnd <= start) {
+            return -1;  // Nothing in this subtree ends after the query starts
+        }
+        int found = findAnyOverlap(node.left, start, end, excludeId);
+        if (found != -1) {
+            return found;
+        }
+        if (node.start >= end) {
+            return -1;  // This node and everything to its right start after the query ends
+        }
+        if (node.end > start && node.id != excludeId) {
+            return node.id;
+        }
+        return findAnyOverlap(node.right, start, end, excludeId);
+    }
+
+    private static int compare(long start, int id, Node node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : Integer.compare(id, node.id);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private Node remove(Node node, int id, long start) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, id, node);
+        if (comparison < 0) {
+            node.left = remove(node.left, id, start);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, id, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace with the smallest node of the right subtree
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+
+    private static Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd > maxEnd) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd > maxEnd) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+}
@@ -1,43 +1,143 @@
-package com.trevorBower.appointmentScheduler.helper;
-
-import java.sql.Connection;
-import java.sql.DriverManager;
-
-/**
- * Provided by WGU. Used to access provided SQL database
- */
-public abstract class JDBC {
-    private static final String protocol = "jdbc";
-    private static final String vendor = ":mysql:";
-    private static final String location = "//localhost/";
-    private static final String databaseName = "client_schedule";
-    private static final String jdbcUrl = protocol + vendor + location + databaseName + "?connectionTimeZone = SERVER"; // LOCAL
-    private static final String driver = "com.mysql.cj.jdbc.Driver"; // Driver reference
-    private static final String userName = "sqlUser"; // Username
-    private static String password = "Passw0rd!"; // Password
-    public static Connection connection;  // Connection Interface
-
-    public static void openConnection()
-    {
-        try {
-            Class.forName(driver); // Locate Driver
-            connection = DriverManager.getConnection(jdbcUrl, userName, password); // Reference Connection object
-            System.out.println("Connection successful!");
-        }
-        catch(Exception e)
-        {
-            System.out.println("Error:" + e.getMessage());
-        }
-    }
-
-    public static void closeConnection() {
-        try {
-            connection.close();
-            System.out.println("Connection closed!");
-        }
-        catch(Exception e)
-        {
-            System.out.println("Error:" + e.getMessage());
-        }
-    }
-}
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provided by WGU. Used to access provided SQL database
+ * Connections are pooled; borrow one with getConnection() and close it to return it to the pool
+ * Backend (MySQL or embedded H2) and credentials come from database.properties; system properties override it
+ * openConnection may run in the background at startup; getConnection waits for it to finish
+ */
+public abstract class JDBC {
+    private static final String configFile = "/database.properties";
+    private static final String defaultJdbcUrl = "jdbc:mysql://localhost/client_schedule?connectionTimeZone = SERVER"; // LOCAL
+    private static final String defaultUserName = "sqlUser"; // Username
+    private static final String defaultPassword = "Passw0rd!"; // Password
+
+    // Pool settings
+    private static final int minPoolSize = 2;
+    private static final int maxPoolSize = 10;
+    private static final long borrowTimeoutMillis = 5000;
+    private static final long openTimeoutMillis = 30 * 1000;  // Longest wait for a startup openConnection
+    private static final long idleTimeoutMillis = 5 * 60 * 1000;
+    private static final int validationTimeoutSeconds = 2;
+    private static final int statementCacheSize = 50;  // Prepared statements cached per connection
+    private static final long leakDetectionThresholdMillis = 30 * 1000;  // Log statements open longer than this
+    private static final int defaultFetchSize = 500;  // Rows per round trip for streamed queries
+    private static int fetchSize = defaultFetchSize;
+    private static volatile ConnectionPool pool;  // Connection pool
+    private static volatile DatabaseBackend backend;  // Backend the pool is connected to
+    private static final CountDownLatch opened = new CountDownLatch(1);  // Released once openConnection finishes
+
+    public static void openConnection()
+    {
+        try {
+            Properties settings = loadSettings();
+            backend = DatabaseBackend.fromName(settings.getProperty("db.backend", DatabaseBackend.MYSQL.name()));
+            String prefix = backend.getPropertyPrefix();
+            String jdbcUrl = settings.getProperty(prefix + ".url", defaultJdbcUrl);
+            String userName = settings.getProperty(prefix + ".user", defaultUserName);
+            String password = settings.getProperty(prefix + ".password", defaultPassword);
+            fetchSize = Integer.parseInt(settings.getProperty("db.fetchSize", String.valueOf(defaultFetchSize)));
+
+            Class.forName(backend.getDriver()); // Locate Driver
+            ConnectionPool openedPool = new ConnectionPool(jdbcUrl, userName, password, minPoolSize, maxPoolSize,
+                    borrowTimeoutMillis, idleTimeoutMillis, validationTimeoutSeconds); // Open initial connections
+            openedPool.setStatementCacheSize(statementCacheSize);
+            openedPool.setLeakDetectionThreshold(leakDetectionThresholdMillis);
+            try (Connection connection = openedPool.borrow()) {
+                if (backend.isBootstrapSchema()) {
+                    SchemaBootstrap.bootstrap(connection);
+                }
+                SchemaMigrations.migrate(connection); // Install indexes and other versioned schema changes
+            }
+            pool = openedPool;  // Published only once the schema is ready for other threads
+            System.out.println("Connection successful! (" + backend + ")");
+        }
+        catch(Exception e)
+        {
+            System.out.println("Error:" + e.getMessage());
+        }
+        finally {
+            opened.countDown();
+        }
+    }
+
+    /**
+     * Reads database.properties from the classpath, then applies any matching system properties on top
+     * @return Database settings
+     * @throws IOException If database.properties cannot be read
+     */
+    private static Properties loadSettings() throws IOException {
+        Properties settings = new Properties();
+        try (InputStream in = JDBC.class.getResourceAsStream(configFile)) {
+            if (in != null) {
+                settings.load(in);
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("db.") || key.startsWith("mysql.") || key.startsWith("h2.")) {
+                settings.setProperty(key, System.getProperty(key));
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * Borrows a connection from the pool, first waiting for openConnection if it is still running. Closing the
+     * returned connection gives it back to the pool.
+     * @return Pooled connection
+     * @throws SQLException If pool is not open or no connection becomes available
+     */
+    public static Connection getConnection() throws SQLException {
+        if (pool == null) {
+            try {
+                opened.await(openTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (pool == null) {
+            throw new SQLException("Connection pool has not been opened.");
+        }
+        return pool.borrow();
+    }
+
+    /**
+     * @return Connection pool, for metrics (including statement cache hit/miss counts)
+     */
+    public static ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * @return Rows to fetch per round trip when streaming large result sets (db.fetchSize setting)
+     */
+    public static int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * @return Backend the pool is connected to, or null before openConnection()
+     */
+    public static DatabaseBackend getBackend() {
+        return backend;
+    }
+
+    public static void closeConnection() {
+        try {
+            pool.close();
+            System.out.println("Connection closed!");
+        }
+        catch(Exception e)
+        {
+            System.out.println("Error:" + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import com.trevorBower.appointmentScheduler.model.Appointment;
+import com.trevorBower.appointmentScheduler.model.Customer;
+import javafx.collections.ObservableListBase;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only list of every row of a table, in primary key order, that loads pages on demand for a TableView.
+ * Only the row count and the first page are read up front. A row that is not loaded yet reads as null and its page is
+ * fetched in the background by keyset (ID > last ID of the previous page); the rows are then reported as replaced so
+ * the table redraws them. At most maxCachedPages pages are held, least recently used dropped first.
+ * Changes from a ChangeFeed are applied with apply(); the row count otherwise stays as it was when the list was
+ * opened. Use from the FX thread only.
+ * @param <T> Row type
+ */
+public class PagedList<T> extends ObservableListBase<T> {
+
+    /**
+     * Keyset queries over one table. Keys are positive integer primary keys.
+     * @param <T> Row type
+     */
+    public interface PageSource<T> {
+        /**
+         * @return Number of rows in the table
+         * @throws SQLException SQL query fails
+         */
+        int count() throws SQLException;
+
+        /**
+         * @param afterKey Last key of the previous page, or 0 for the first page
+         * @param pageSize Maximum rows to return
+         * @return Up to pageSize rows after the key, in key order
+         * @throws SQLException SQL query fails
+         */
+        List<T> getPage(int afterKey, int pageSize) throws SQLException;
+
+        /**
+         * @param afterKey Known key, or 0 for the start of the table
+         * @param skip Rows to skip after it
+         * @return Key of the row after the skipped ones, or null if the table ends first
+         * @throws SQLException SQL query fails
+         */
+        Integer getKeyAfter(int afterKey, int skip) throws SQLException;
+
+        /**
+         * @param row Row of a page
+         * @return Its key
+         */
+        int keyOf(T row);
+    }
+
+    /**
+     * Appointments by Appointment_ID
+     */
+    public static final PageSource<Appointment> appointments = new PageSource<>() {
+        @Override
+        public int count() throws SQLException {
+            return AppointmentQuery.countAppointments();
+        }
+
+        @Override
+        public List<Appointment> getPage(int afterKey, int pageSize) throws SQLException {
+            return AppointmentQuery.getAppointmentPage(afterKey, pageSize);
+        }
+
+        @Override
+        public Integer getKeyAfter(int afterKey, int skip) throws SQLException {
+            return AppointmentQuery.getAppointmentIdAfter(afterKey, skip);
+        }
+
+        @Override
+        public int keyOf(Appointment row) {
+            return row.getAppointmentId();
+        }
+    };
+
+    /**
+     * Customers by Customer_ID
+     */
+    public static final PageSource<Customer> customers = new PageSource<>() {
+        @Override
+        public int count() throws SQLException {
+            return CustomerQuery.countCustomers();
+        }
+
+        @Override
+        public List<Customer> getPage(int afterKey, int pageSize) throws SQLException {
+            return CustomerQuery.getCustomerPage(afterKey, pageSize);
+        }
+
+        @Override
+        public Integer getKeyAfter(int afterKey, int skip) throws SQLException {
+            return CustomerQuery.getCustomerIdAfter(afterKey, skip);
+        }
+
+        @Override
+        public int keyOf(Customer row) {
+            return row.getCustomerId();
+        }
+    };
+
+    public static final int defaultPageSize = 200;
+    public static final int defaultMaxCachedPages = 25;  // 5000 rows
+    private static final int unknownKey = -1;
+
+    private final PageSource<T> source;
+    private final int pageSize;
+    private int size;
+    private int[] pageKeys;  // Last key before each page, or unknownKey
+    private int generation = 0;  // Bumped when rows shift, so page loads started before then are dropped
+    private final Map<Integer, List<T>> pages;
+    private final Set<Integer> loadingPages = new HashSet<>();
+
+    private PagedList(PageSource<T> source, int size, int pageSize, int maxCachedPages, List<T> firstPage) {
+        this.source = source;
+        this.size = size;
+        this.pageSize = pageSize;
+        this.pageKeys = new int[(size + pageSize - 1) / pageSize + 1];
+        Arrays.fill(pageKeys, unknownKey);
+        pageKeys[0] = 0;
+        // Access order, so the eldest entry is the least recently used page
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+        storePage(0, firstPage);
+    }
+
+    /**
+     * Counts the rows and reads the first page. Run off the FX thread.
+     * @param source Table to page through
+     * @param pageSize Rows per page
+     * @param maxCachedPages Pages kept in memory
+     * @param <T> Row type
+     * @return List ready to hand to a TableView
+     * @throws SQLException SQL query fails
+     */
+    public static <T> PagedList<T> open(PageSource<T> source, int pageSize, int maxCachedPages) throws SQLException {
+        int size = source.count();
+        List<T> firstPage = source.getPage(0, pageSize);
+        return new PagedList<>(source, Math.max(size, firstPage.size()), pageSize, maxCachedPages, firstPage);
+    }
+
+    /**
+     * Opens a list with the default page size and cache
+     * @param source Table to page through
+     * @param <T> Row type
+     * @return List ready to hand to a TableView
+     * @throws SQLException SQL query fails
+     */
+    public static <T> PagedList<T> open(PageSource<T> source) throws SQLException {
+        return open(source, defaultPageSize, defaultMaxCachedPages);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index Row index
+     * @return Row at the index, or null while its page is loading (or if it was deleted since opening)
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int page = index / pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        int offset = index % pageSize;
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    /**
+     * @return Number of pages currently held in memory
+     */
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Starts loading a page unless it is already on its way
+     */
+    private void requestPage(int page) {
+        if (!loadingPages.add(page)) {
+            return;
+        }
+        try {
+            loadPage(page);
+        } catch (RuntimeException e) {
+            loadingPages.remove(page);  // Otherwise the page would never be asked for again
+            throw e;
+        }
+    }
+
+    private void loadPage(int page) {
+        // Start from the nearest page before it whose key is known; usually the page itself when scrolling
+        int knownPage = Math.min(page, pageKeys.length - 1);
+        while (pageKeys[knownPage] == unknownKey) {
+            knownPage--;
+        }
+        int knownKey = pageKeys[knownPage];
+        int rowsToSkip = (page - knownPage) * pageSize;
+        int requestGeneration = generation;
+        DatabaseExecutor.run(() -> {
+            int afterKey = knownKey;
+            if (rowsToSkip > 0) {
+                // Jumped ahead; find the last key of the previous page through the primary key index
+                Integer key = source.getKeyAfter(knownKey, rowsToSkip - 1);
+                if (key == null) {
+                    return List.<T>of();
+                }
+                afterKey = key;
+            }
+            return source.getPage(afterKey, pageSize);
+        }, rows -> {
+            loadingPages.remove(page);
+            if (requestGeneration == generation) {
+                storePage(page, rows);
+            }
+            // Tell the table its placeholder rows now have values, or to ask again if rows shifted meanwhile
+            int from = page * pageSize;
+            int to = Math.min(from + pageSize, size);
+            beginChange();
+            for (int i = from; i < to; i++) {
+                nextSet(i, null);
+            }
+            endChange();
+        }, error -> {
+            loadingPages.remove(page);
+            error.printStackTrace();
+        });
+    }
+
+    private void storePage(int page, List<T> rows) {
+        pages.put(page, new ArrayList<>(rows));
+        if (rows.size() == pageSize) {
+            setPageKey(page + 1, source.keyOf(rows.get(rows.size() - 1)));
+        }
+    }
+
+    private void setPageKey(int page, int key) {
+        if (page >= pageKeys.length) {
+            int oldLength = pageKeys.length;
+            pageKeys = Arrays.copyOf(pageKeys, Math.max(page + 1, oldLength * 2));
+            Arrays.fill(pageKeys, oldLength, pageKeys.length, unknownKey);
+        }
+        pageKeys[page] = key;
+    }
+
+    // Patching
+
+    /**
+     * Patches the list with one change instead of reopening it: an update replaces its row if loaded, an insert is
+     * appended (new keys are the highest), and a delete removes its row. Rows after a delete move up one place, so
+     * pages from the deleted row on are dropped and reload as the table shows them.
+     * @param change INSERTED, UPDATED or DELETED change
+     */
+    public void apply(ChangeFeed.Change<T> change) {
+        switch (change.getKind()) {
+            case INSERTED:
+                append(change.getRow());
+                break;
+            case UPDATED:
+                replace(change.getRow());
+                break;
+            case DELETED:
+                removeKey(change.getId());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void append(T row) {
+        int index = size++;
+        int page = index / pageSize;
+        int offset = index % pageSize;
+        if (page >= pageKeys.length) {
+            setPageKey(page, unknownKey);  // Keep a slot for every page, so requestPage can look the new ones up
+        }
+        List<T> rows = pages.get(page);
+        if (rows != null && rows.size() == offset) {
+            rows.add(row);
+            if (rows.size() == pageSize) {
+                setPageKey(page + 1, source.keyOf(row));
+            }
+        } else if (rows != null) {
+            pages.remove(page);  // Out of step with the table; reload it
+        } else if (offset == 0 && page < pageKeys.length && pageKeys[page] != unknownKey) {
+            pages.put(page, new ArrayList<>(List.of(row)));
+        }
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    private void replace(T row) {
+        int key = source.keyOf(row);
+        for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+            int offset = offsetOf(entry.getValue(), key);
+            if (offset >= 0) {
+                T old = entry.getValue().set(offset, row);
+                beginChange();
+                nextSet(entry.getKey() * pageSize + offset, old);
+                endChange();
+                return;
+            }
+        }
+    }
+
+    private void removeKey(int key) {
+        int page = -1;
+        int offset = -1;
+        for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+            offset = offsetOf(entry.getValue(), key);
+            if (offset >= 0) {
+                page = entry.getKey();
+                break;
+            }
+        }
+        int index;
+        T removed = null;
+        if (page >= 0) {
+            index = page * pageSize + offset;
+            removed = pages.get(page).get(offset);
+        } else {
+            // Not loaded; the row is somewhere after the last page known to start before it
+            page = 0;
+            for (int p = 1; p < pageKeys.length && p * pageSize < size; p++) {
+                if (pageKeys[p] != unknownKey && pageKeys[p] < key) {
+                    page = p;
+                }
+            }
+            index = size - 1;  // Exact place unknown; the dropped pages reload with the right rows
+        }
+        // Every row after the deleted one moves up, so drop the pages and page keys from here on
+        int firstShiftedPage = page;
+        pages.keySet().removeIf(cachedPage -> cachedPage >= firstShiftedPage);
+        Arrays.fill(pageKeys, Math.min(firstShiftedPage + 1, pageKeys.length), pageKeys.length, unknownKey);
+        generation++;
+        size--;
+        beginChange();
+        nextRemove(index, removed);
+        endChange();
+    }
+
+    /**
+     * @return Offset of the row with the key in a page in key order, or -1
+     */
+    private int offsetOf(List<T> rows, int key) {
+        int low = 0;
+        int high = rows.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleKey = source.keyOf(rows.get(middle));
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+}
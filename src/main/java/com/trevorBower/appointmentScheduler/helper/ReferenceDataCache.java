@@ -0,0 +1,208 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared cache of the contacts, users and customer IDs shown in the appointment forms, so opening a form or saving
+ * an appointment doesn't query these tables. Loaded once, replaced in the background when older than the time to
+ * live, and dropped when customers are added or deleted.
+ */
+public abstract class ReferenceDataCache {
+
+    private static final long timeToLiveMillis = 5 * 60 * 1000;
+    private static volatile ReferenceData current;  // Null until loaded or after invalidate()
+    private static final AtomicBoolean refreshing = new AtomicBoolean(false);
+    // Bumped by invalidate() so a load that started before a change can't publish what it read
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * One consistent, read-only copy of the reference tables
+     */
+    public static final class ReferenceData {
+        private final List<String> contactNames;
+        private final Map<String, Integer> contactIdByName;
+        private final Map<Integer, String> contactNameById;
+        private final List<Integer> userIds;
+        private final Map<String, Integer> userIdByName;
+        private final Map<Integer, String> userNameById;
+        private final List<Integer> customerIds;
+        private final Map<Integer, String> customerNameById;
+        private final long loadedMillis = System.currentTimeMillis();
+
+        private ReferenceData(List<String> contactNames, Map<String, Integer> contactIdByName,
+                              Map<Integer, String> contactNameById, List<Integer> userIds,
+                              Map<String, Integer> userIdByName, Map<Integer, String> userNameById,
+                              List<Integer> customerIds, Map<Integer, String> customerNameById) {
+            this.contactNames = Collections.unmodifiableList(contactNames);
+            this.contactIdByName = Collections.unmodifiableMap(contactIdByName);
+            this.contactNameById = Collections.unmodifiableMap(contactNameById);
+            this.userIds = Collections.unmodifiableList(userIds);
+            this.userIdByName = Collections.unmodifiableMap(userIdByName);
+            this.userNameById = Collections.unmodifiableMap(userNameById);
+            this.customerIds = Collections.unmodifiableList(customerIds);
+            this.customerNameById = Collections.unmodifiableMap(customerNameById);
+        }
+
+        /**
+         * @return Contact names in alphabetical order
+         */
+        public List<String> getContactNames() {
+            return contactNames;
+        }
+
+        /**
+         * @param contactName Contact name
+         * @return Contact ID, or 0 if no contact has that name
+         */
+        public int getContactId(String contactName) {
+            Integer contactId = contactIdByName.get(contactName);
+            return contactId == null ? 0 : contactId;
+        }
+
+        /**
+         * @param contactId Contact ID
+         * @return Contact name, or null if not found
+         */
+        public String getContactName(int contactId) {
+            return contactNameById.get(contactId);
+        }
+
+        /**
+         * @return User IDs in ascending order
+         */
+        public List<Integer> getUserIds() {
+            return userIds;
+        }
+
+        /**
+         * @param userName Username
+         * @return User ID, or 0 if not found
+         */
+        public int getUserId(String userName) {
+            Integer userId = userIdByName.get(userName);
+            return userId == null ? 0 : userId;
+        }
+
+        /**
+         * @param userId User ID
+         * @return Username, or null if not found
+         */
+        public String getUserName(int userId) {
+            return userNameById.get(userId);
+        }
+
+        /**
+         * @return Customer IDs in ascending order
+         */
+        public List<Integer> getCustomerIds() {
+            return customerIds;
+        }
+
+        /**
+         * @param customerId Customer ID
+         * @return Customer name, or null if not found
+         */
+        public String getCustomerName(int customerId) {
+            return customerNameById.get(customerId);
+        }
+    }
+
+    /**
+     * Gets the cached reference data, loading it first if needed. Data past its time to live is still returned while
+     * a background reload replaces it.
+     * @return Reference data
+     * @throws SQLException Data had to be loaded and the SQL query failed
+     */
+    public static ReferenceData get() throws SQLException {
+        ReferenceData data = current;
+        if (data == null) {
+            return load();
+        }
+        if (System.currentTimeMillis() - data.loadedMillis > timeToLiveMillis && refreshing.compareAndSet(false, true)) {
+            DatabaseExecutor.submit(() -> {
+                try {
+                    return load();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+        return data;
+    }
+
+    /**
+     * Drops the cached data so the next get() reloads it. Call after adding or deleting customers, contacts or users.
+     */
+    public static void invalidate() {
+        generation.incrementAndGet();
+        current = null;
+    }
+
+    /**
+     * Reads all three tables on one connection and replaces the cached data
+     * @return Newly loaded data
+     * @throws SQLException SQL query fails (cached data is left as it was)
+     */
+    public static ReferenceData load() throws SQLException {
+        int loadGeneration = generation.get();
+        List<String> contactNames = new ArrayList<>();
+        Map<String, Integer> contactIdByName = new HashMap<>();
+        Map<Integer, String> contactNameById = new HashMap<>();
+        List<Integer> userIds = new ArrayList<>();
+        Map<String, Integer> userIdByName = new HashMap<>();
+        Map<Integer, String> userNameById = new HashMap<>();
+        List<Integer> customerIds = new ArrayList<>();
+        Map<Integer, String> customerNameById = new HashMap<>();
+
+        try (Connection connection = JDBC.getConnection()) {
+            String sql = "SELECT Contact_ID, Contact_Name FROM contacts ORDER BY Contact_Name ASC";
+            try (PreparedStatement ps = connection.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int contactId = rs.getInt(1);
+                    String contactName = rs.getString(2);
+                    contactNames.add(contactName);
+                    contactIdByName.put(contactName, contactId);
+                    contactNameById.put(contactId, contactName);
+                }
+            }
+            sql = "SELECT User_ID, User_Name FROM users ORDER BY User_ID ASC";
+            try (PreparedStatement ps = connection.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int userId = rs.getInt(1);
+                    String userName = rs.getString(2);
+                    userIds.add(userId);
+                    userIdByName.put(userName, userId);
+                    userNameById.put(userId, userName);
+                }
+            }
+            sql = "SELECT Customer_ID, Customer_Name FROM customers ORDER BY Customer_ID ASC";
+            try (PreparedStatement ps = connection.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int customerId = rs.getInt(1);
+                    customerIds.add(customerId);
+                    customerNameById.put(customerId, rs.getString(2));
+                }
+            }
+        }
+
+        ReferenceData data = new ReferenceData(contactNames, contactIdByName, contactNameById, userIds, userIdByName,
+                userNameById, customerIds, customerNameById);
+        if (generation.get() == loadGeneration) {
+            current = data;
+        }
+        return data;
+    }
+}
@@ -0,0 +1,280 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import com.trevorBower.appointmentScheduler.model.Appointment;
+import javafx.application.Platform;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reminds a logged-in user of each appointment leadMinutes before it starts, for as long as the session lasts.
+ * Each session keeps a priority queue of its user's reminders, ordered by alert time, covering the next horizonHours;
+ * the queue is refilled from the database as that window moves on. Add, modify and delete are applied to the queue
+ * from ChangeFeed without re-reading it. All sessions share one scheduler thread and each waits on a single timer for
+ * its earliest reminder, so an idle session costs a queue and one scheduled task. Reminders are delivered on the FX
+ * thread.
+ */
+public abstract class ReminderService {
+
+    private static final long leadMinutes = 15;  // Remind this long before the start
+    private static final long horizonHours = 24;  // Reminders read ahead per query
+    private static final long refillMarginSeconds = 60 * 60;  // Read the next window this long before the last ends
+    private static final long retryDelaySeconds = 60;  // Wait after a failed read before trying again
+
+    private static final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "reminders");
+        thread.setDaemon(true);  // Don't keep the JVM alive after the last window closes
+        return thread;
+    });
+    private static final List<Session> sessions = new ArrayList<>();  // Scheduler thread only
+    private static boolean subscribed = false;  // Scheduler thread only
+
+    static {
+        scheduler.setRemoveOnCancelPolicy(true);  // Rescheduling a session doesn't leave its old timer queued
+    }
+
+    /**
+     * Reminder for one appointment. Replaced rather than changed when the appointment moves, so entries left in the
+     * queue by an update or delete are recognized as stale and skipped.
+     */
+    private static class Reminder {
+        private final Appointment appointment;
+        private final long alertAtSecond;  // UTC epoch second
+
+        private Reminder(Appointment appointment) {
+            this.appointment = appointment;
+            this.alertAtSecond = appointment.getStartEpochSecond() - leadMinutes * 60;
+        }
+    }
+
+    /**
+     * Reminders of one logged-in user. State is only touched on the scheduler thread.
+     */
+    public static final class Session {
+        private final int userId;
+        private final Consumer<Appointment> onReminder;
+        private final PriorityQueue<Reminder> queue = new PriorityQueue<>(
+                Comparator.comparingLong((Reminder reminder) -> reminder.alertAtSecond)
+                        .thenComparingInt(reminder -> reminder.appointment.getAppointmentId()));
+        private final Map<Integer, Reminder> reminderById = new HashMap<>();
+        private final Set<Integer> deletedWhileLoading = new HashSet<>();
+        private long loadedUntilSecond;  // Reminders for starts up to here are queued, or being read
+        private long nextLoadFromSecond;  // Start of the window not read yet
+        private long refillAtSecond = Long.MAX_VALUE;  // When to read it; unset while a read is running
+        private int loadsPending = 0;
+        private ScheduledFuture<?> timer;
+        private long timerAtSecond = Long.MAX_VALUE;
+        private volatile boolean stopped = false;
+
+        private Session(int userId, Consumer<Appointment> onReminder) {
+            this.userId = userId;
+            this.onReminder = onReminder;
+        }
+
+        /**
+         * @return User ID the session reminds
+         */
+        public int getUserId() {
+            return userId;
+        }
+
+        /**
+         * Stops the reminders, such as at logout. Reminders already handed to the FX thread are dropped too.
+         */
+        public void stop() {
+            stopped = true;
+            scheduler.execute(() -> {
+                sessions.remove(this);
+                if (timer != null) {
+                    timer.cancel(false);
+                }
+                queue.clear();
+                reminderById.clear();
+            });
+        }
+
+        /**
+         * Reads the user's appointments starting after the given second and up to horizonHours from now
+         */
+        private void load(long fromSecond) {
+            long untilSecond = nowSecond() + horizonHours * 60 * 60;
+            loadedUntilSecond = untilSecond;
+            refillAtSecond = Long.MAX_VALUE;
+            loadsPending++;
+            DatabaseExecutor.submit(() -> AppointmentQuery.getUserAppointmentsStartingBetween(userId,
+                    toUtc(fromSecond + 1), toUtc(untilSecond))).whenCompleteAsync((appointments, error) -> {
+                loadsPending--;
+                if (stopped) {
+                    return;
+                }
+                if (error != null) {
+                    System.out.println("Reminder load failed for user " + userId + ": " + error);
+                    nextLoadFromSecond = fromSecond;
+                    refillAtSecond = nowSecond() + retryDelaySeconds;
+                } else {
+                    nextLoadFromSecond = untilSecond;
+                    refillAtSecond = untilSecond - refillMarginSeconds;
+                    for (Appointment appointment : appointments) {
+                        // Keep a newer version from ChangeFeed, and don't bring back rows deleted meanwhile
+                        if (!reminderById.containsKey(appointment.getAppointmentId())
+                                && !deletedWhileLoading.contains(appointment.getAppointmentId())) {
+                            put(appointment);
+                        }
+                    }
+                }
+                if (loadsPending == 0) {
+                    deletedWhileLoading.clear();
+                }
+                reschedule();
+            }, scheduler);
+        }
+
+        private void put(Appointment appointment) {
+            Reminder reminder = new Reminder(appointment);
+            reminderById.put(appointment.getAppointmentId(), reminder);
+            queue.add(reminder);
+        }
+
+        private void remove(int appointmentId) {
+            reminderById.remove(appointmentId);  // Its queue entry is now stale and skipped when reached
+            if (loadsPending > 0) {
+                deletedWhileLoading.add(appointmentId);
+            }
+        }
+
+        /**
+         * Applies one appointment change to the queue
+         */
+        private void apply(ChangeFeed.Change<Appointment> change) {
+            switch (change.getKind()) {
+                case INSERTED:
+                case UPDATED:
+                    Appointment appointment = change.getRow();
+                    remove(appointment.getAppointmentId());
+                    long startSecond = appointment.getStartEpochSecond();
+                    if (appointment.getUserId() == userId && startSecond > nowSecond()
+                            && startSecond <= loadedUntilSecond) {
+                        put(appointment);
+                    }
+                    break;
+                case DELETED:
+                    remove(change.getId());
+                    break;
+                case RELOADED:
+                    // Appointments starting within the lead time have already been reminded of
+                    queue.clear();
+                    reminderById.clear();
+                    load(nowSecond() + leadMinutes * 60);
+                    break;
+                default:
+                    break;
+            }
+            reschedule();
+        }
+
+        /**
+         * Delivers every reminder that is due, refills the window if it is running out, and waits for the next
+         */
+        private void fire() {
+            timer = null;
+            timerAtSecond = Long.MAX_VALUE;
+            if (stopped) {
+                return;
+            }
+            long now = nowSecond();
+            while (!queue.isEmpty() && queue.peek().alertAtSecond <= now) {
+                Reminder reminder = queue.poll();
+                Appointment appointment = reminder.appointment;
+                if (reminderById.get(appointment.getAppointmentId()) != reminder) {
+                    continue;  // Stale entry of a changed or deleted appointment
+                }
+                reminderById.remove(appointment.getAppointmentId());
+                if (appointment.getStartEpochSecond() > now) {
+                    Platform.runLater(() -> {
+                        if (!stopped) {
+                            onReminder.accept(appointment);
+                        }
+                    });
+                }
+            }
+            if (loadsPending == 0 && now >= refillAtSecond) {
+                load(nextLoadFromSecond);
+            }
+            reschedule();
+        }
+
+        /**
+         * Sets the timer for the earliest reminder or the next refill, moving it only if that time changed
+         */
+        private void reschedule() {
+            if (stopped) {
+                return;
+            }
+            // Drop stale entries at the head so they don't wake the session for nothing
+            while (!queue.isEmpty() && reminderById.get(queue.peek().appointment.getAppointmentId()) != queue.peek()) {
+                queue.poll();
+            }
+            long nextSecond = refillAtSecond;
+            if (!queue.isEmpty()) {
+                nextSecond = Math.min(nextSecond, queue.peek().alertAtSecond);
+            }
+            if (nextSecond == Long.MAX_VALUE || timer != null && nextSecond == timerAtSecond) {
+                return;  // Nothing due before a running read finishes, or the timer is already right
+            }
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            timerAtSecond = nextSecond;
+            timer = scheduler.schedule(this::fire, Math.max(0, nextSecond * 1000 - System.currentTimeMillis()),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Starts reminding a user of appointments starting more than leadMinutes from now; earlier ones are expected to
+     * have been shown at login. Later adds, modifies and deletes are followed through ChangeFeed.
+     * @param userId User ID to remind
+     * @param onReminder Called on the FX thread with each appointment, leadMinutes before it starts
+     * @return Session to stop at logout
+     */
+    public static Session start(int userId, Consumer<Appointment> onReminder) {
+        Session session = new Session(userId, onReminder);
+        scheduler.execute(() -> {
+            if (session.stopped) {
+                return;
+            }
+            if (!subscribed) {
+                // One subscription for every session; the changes are applied on the scheduler thread
+                subscribed = true;
+                ChangeFeed.appointments.subscribe(change -> scheduler.execute(() -> {
+                    for (Session each : sessions) {
+                        each.apply(change);
+                    }
+                }));
+            }
+            sessions.add(session);
+            session.load(nowSecond() + leadMinutes * 60);
+        });
+        return session;
+    }
+
+    private static long nowSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static LocalDateTime toUtc(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,374 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streams report rows straight from the result set to a writer, so a report's size never limits memory.
+ * Reports can be exported to disk as plain text or CSV, or rendered to a temporary file and previewed a page
+ * at a time.
+ */
+public abstract class ReportEngine {
+
+    /**
+     * Output format of a report
+     */
+    public enum Format {
+        TEXT("txt"),  // "Label: value | Label: value" lines under each section heading
+        CSV("csv");  // Section heading, header row, then one quoted row per record
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * @return File extension, without the dot
+         */
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Turns the current result set row into report field values, one per column label
+     */
+    @FunctionalInterface
+    public interface RowMapper {
+        String[] map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Supplies report rows already held in memory, one value per column label
+     */
+    @FunctionalInterface
+    public interface RowSource {
+        Iterable<String[]> rows() throws SQLException;
+    }
+
+    /**
+     * One query of a report and how its rows are shown
+     */
+    public static class Section {
+        private final String heading;
+        private final String sql;
+        private final String[] labels;
+        private final RowMapper mapper;
+        private final RowSource source;
+
+        /**
+         * @param heading Heading written above the rows
+         * @param sql Query; run with JDBC.getFetchSize() so rows stream
+         * @param labels Column labels
+         * @param mapper Maps each row to one value per label
+         */
+        public Section(String heading, String sql, String[] labels, RowMapper mapper) {
+            this.heading = heading;
+            this.sql = sql;
+            this.labels = labels.clone();
+            this.mapper = mapper;
+            this.source = null;
+        }
+
+        /**
+         * @param heading Heading written above the rows
+         * @param labels Column labels
+         * @param source Supplies the rows from memory instead of a query
+         */
+        public Section(String heading, String[] labels, RowSource source) {
+            this.heading = heading;
+            this.sql = null;
+            this.labels = labels.clone();
+            this.mapper = null;
+            this.source = source;
+        }
+    }
+
+    /**
+     * A titled list of sections
+     */
+    public static class Report {
+        private final String title;
+        private final List<Section> sections;
+
+        /**
+         * @param title Report title
+         * @param sections Sections, written in order
+         */
+        public Report(String title, Section... sections) {
+            this.title = title;
+            this.sections = Collections.unmodifiableList(Arrays.asList(sections));
+        }
+
+        /**
+         * @return Report title
+         */
+        public String getTitle() {
+            return title;
+        }
+    }
+
+    // Writing
+
+    /**
+     * Runs each section's query and writes its rows as they are read
+     * @param report Report to write
+     * @param format Output format
+     * @param out Destination; wrap file or stream writers in a BufferedWriter
+     * @return Number of data rows written
+     * @throws SQLException SQL query fails
+     * @throws IOException Writing to out fails
+     */
+    public static int write(Report report, Format format, Appendable out) throws SQLException, IOException {
+        int rows = 0;
+        try (Connection connection = JDBC.getConnection()) {
+            boolean first = true;
+            for (Section section : report.sections) {
+                if (!first) {
+                    out.append('\n');  // Blank line between sections
+                }
+                first = false;
+                if (format == Format.CSV) {
+                    appendCsvRow(out, new String[]{section.heading});
+                    appendCsvRow(out, section.labels);
+                } else {
+                    out.append(section.heading).append("\n\n");
+                }
+                if (section.source != null) {
+                    for (String[] values : section.source.rows()) {
+                        appendRow(out, format, section.labels, values);
+                        rows++;
+                    }
+                    continue;
+                }
+                try (PreparedStatement ps = connection.prepareStatement(section.sql)) {
+                    ps.setFetchSize(JDBC.getFetchSize());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            appendRow(out, format, section.labels, section.mapper.map(rs));
+                            rows++;
+                        }
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Writes a report to a file, replacing it if it exists
+     * @param report Report to write
+     * @param format Output format
+     * @param file Destination file
+     * @return Number of data rows written
+     * @throws SQLException SQL query fails
+     * @throws IOException File can't be written
+     */
+    public static int export(Report report, Format format, Path file) throws SQLException, IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return write(report, format, out);
+        }
+    }
+
+    /**
+     * Writes a report to a temporary file for paged preview
+     * @param report Report to write
+     * @param format Output format
+     * @param linesPerPage Lines on each preview page
+     * @return Rendered report; close it to delete the temporary file
+     * @throws SQLException SQL query fails
+     * @throws IOException Temporary file can't be written
+     */
+    public static RenderedReport render(Report report, Format format, int linesPerPage)
+            throws SQLException, IOException {
+        Path file = Files.createTempFile("report-", "." + format.getExtension());
+        try {
+            int rows = export(report, format, file);
+            return new RenderedReport(report, file, rows, linesPerPage);
+        } catch (SQLException | IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static void appendRow(Appendable out, Format format, String[] labels, String[] values)
+            throws IOException {
+        if (format == Format.CSV) {
+            appendCsvRow(out, values);
+        } else {
+            appendTextRow(out, labels, values);
+        }
+    }
+
+    private static void appendTextRow(Appendable out, String[] labels, String[] values) throws IOException {
+        for (int i = 0; i < labels.length; i++) {
+            if (i > 0) {
+                out.append(" | ");
+            }
+            out.append(labels[i]).append(": ").append(i < values.length ? values[i] : null);
+        }
+        out.append('\n');
+    }
+
+    private static void appendCsvRow(Appendable out, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;  // Empty field
+            }
+            boolean quote = false;
+            for (int c = 0; c < value.length() && !quote; c++) {
+                char ch = value.charAt(c);
+                quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+            }
+            if (quote) {
+                out.append('"');
+                for (int c = 0; c < value.length(); c++) {
+                    char ch = value.charAt(c);
+                    if (ch == '"') {
+                        out.append('"');  // Escape quotes by doubling them
+                    }
+                    out.append(ch);
+                }
+                out.append('"');
+            } else {
+                out.append(value);
+            }
+        }
+        out.append('\n');
+    }
+
+    // Preview
+
+    /**
+     * A report written to a temporary file, read back one page at a time. Only the byte offset of each page is kept
+     * in memory.
+     */
+    public static class RenderedReport implements Closeable {
+        private final Report report;
+        private final Path file;
+        private final int rows;
+        private final int linesPerPage;
+        private final long[] pageOffsets;
+
+        private RenderedReport(Report report, Path file, int rows, int linesPerPage) throws IOException {
+            if (linesPerPage < 1) {
+                throw new IllegalArgumentException("linesPerPage must be positive: " + linesPerPage);
+            }
+            this.report = report;
+            this.file = file;
+            this.rows = rows;
+            this.linesPerPage = linesPerPage;
+            this.pageOffsets = indexPages(file, linesPerPage);
+        }
+
+        /**
+         * Records where every page starts. Newline is a single byte in UTF-8, so counting bytes is enough.
+         */
+        private static long[] indexPages(Path file, int linesPerPage) throws IOException {
+            List<Long> offsets = new ArrayList<>();
+            offsets.add(0L);
+            long size = Files.size(file);
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                long position = 0;
+                int lines = 0;
+                int b;
+                while ((b = in.read()) != -1) {
+                    position++;
+                    if (b == '\n' && ++lines % linesPerPage == 0 && position < size) {
+                        offsets.add(position);
+                    }
+                }
+            }
+            long[] pageOffsets = new long[offsets.size()];
+            for (int i = 0; i < pageOffsets.length; i++) {
+                pageOffsets[i] = offsets.get(i);
+            }
+            return pageOffsets;
+        }
+
+        /**
+         * @return Report that was rendered
+         */
+        public Report getReport() {
+            return report;
+        }
+
+        /**
+         * @return Number of data rows in the report
+         */
+        public int getRowCount() {
+            return rows;
+        }
+
+        /**
+         * @return Number of preview pages (at least 1)
+         */
+        public int getPageCount() {
+            return pageOffsets.length;
+        }
+
+        /**
+         * Reads one page of the report
+         * @param page Page index, from 0
+         * @return Lines on the page
+         * @throws IOException Temporary file can't be read
+         */
+        public List<String> readPage(int page) throws IOException {
+            if (page < 0 || page >= pageOffsets.length) {
+                throw new IndexOutOfBoundsException("Page " + page + " of " + pageOffsets.length);
+            }
+            List<String> lines = new ArrayList<>(linesPerPage);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                channel.position(pageOffsets[page]);
+                BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.name()));
+                String line;
+                while (lines.size() < linesPerPage && (line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+            }
+            return lines;
+        }
+
+        /**
+         * Copies the rendered report to a file, replacing it if it exists
+         * @param destination Destination file
+         * @throws IOException Copy fails
+         */
+        public void saveAs(Path destination) throws IOException {
+            Files.copy(file, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        /**
+         * Deletes the temporary file
+         * @throws IOException File can't be deleted
+         */
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.trevorBower.appointmentScheduler.helper.ExtraMethods.convertUtcTimeToSystem;
+
+/**
+ * Queries behind the reports form, written out by ReportEngine
+ */
+public class ReportQuery {
+
+    /**
+     * Total number of customer appointments by type and by month, read from AppointmentCounters rather than
+     * scanning the appointments table
+     * @return Report definition
+     */
+    public static ReportEngine.Report appointmentCounts() {
+        return new ReportEngine.Report("Report 1",
+                new ReportEngine.Section("Total number of customer appointments by type:",
+                        new String[]{"Type", "Count"},
+                        () -> toRows(AppointmentCounters.getCountsByType())),
+                new ReportEngine.Section("Total number of customer appointments by month:",
+                        new String[]{"Month", "Count"},
+                        () -> toRows(AppointmentCounters.getCountsByMonth())));
+    }
+
+    /**
+     * Schedule for each contact in organization: appointment ID, title, type, description, start date/time,
+     * end date/time and customer ID, in local time
+     * @return Report definition
+     */
+    public static ReportEngine.Report contactSchedules() {
+        return new ReportEngine.Report("Report 2",
+                new ReportEngine.Section("Appointments in chronological order for each contact in organization:",
+                        "SELECT d.Contact_Name, c.Appointment_ID, c.Title, c.Type, c.Description, " +
+                                "c.Start, c.End, c.Customer_ID " +
+                                "FROM appointments c " +
+                                "JOIN contacts d ON c.Contact_ID = d.Contact_ID " +
+                                "ORDER BY d.Contact_Name, c.Start",
+                        new String[]{"Contact name", "Appointment ID", "Title", "Type", "Description",
+                                "Start Date/Time", "End Date/Time", "Customer ID"},
+                        rs -> new String[]{
+                                rs.getString(1),
+                                String.valueOf(rs.getInt(2)),
+                                rs.getString(3),
+                                rs.getString(4),
+                                rs.getString(5),
+                                String.valueOf(convertUtcTimeToSystem(rs.getObject(6, LocalDateTime.class))),
+                                String.valueOf(convertUtcTimeToSystem(rs.getObject(7, LocalDateTime.class))),
+                                String.valueOf(rs.getInt(8))}));
+    }
+
+    /**
+     * Every customer's name, full address and phone number. Customers, divisions and countries are joined in one
+     * query, so the cost per customer stays flat.
+     * @return Report definition
+     */
+    public static ReportEngine.Report customerContacts() {
+        return new ReportEngine.Report("Report 3",
+                new ReportEngine.Section("List of all customer names and their contact information:",
+                        "SELECT c.Customer_Name, c.Address, d.Division, n.Country, c.Postal_Code, c.Phone " +
+                                "FROM customers c " +
+                                "JOIN first_level_divisions d ON c.Division_ID = d.Division_ID " +
+                                "JOIN countries n ON d.Country_ID = n.Country_ID " +
+                                "ORDER BY c.Customer_ID",
+                        new String[]{"Customer Name", "Full Address", "Phone Number"},
+                        rs -> new String[]{
+                                rs.getString(1),
+                                rs.getString(2) + ", " + rs.getString(3) + ", " + rs.getString(4) + ", "
+                                        + rs.getString(5),
+                                rs.getString(6)}));
+    }
+
+    /**
+     * Writes the customer contact report as plain text, streaming rows JDBC.getFetchSize() at a time
+     * @param out Where the report lines are written
+     * @return Number of customers written
+     * @throws SQLException SQL query fails
+     * @throws IOException Writing to out fails
+     */
+    public static int writeCustomerContacts(Appendable out) throws SQLException, IOException {
+        return ReportEngine.write(customerContacts(), ReportEngine.Format.TEXT, out);
+    }
+
+    private static List<String[]> toRows(Map<?, Integer> counts) {
+        List<String[]> rows = new ArrayList<>(counts.size());
+        for (Map.Entry<?, Integer> count : counts.entrySet()) {
+            rows.add(new String[]{String.valueOf(count.getKey()), String.valueOf(count.getValue())});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,101 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the client_schedule tables on an embedded database and loads the starter rows, so the Query classes
+ * can run without a MySQL server
+ */
+public abstract class SchemaBootstrap {
+    private static final String schemaScript = "/db/schema.sql";
+    private static final String seedScript = "/db/seed.sql";
+
+    /**
+     * Creates any missing tables, then loads the starter data if the database has no countries yet
+     * @param connection Connection to the embedded database
+     * @throws SQLException If a script statement fails
+     * @throws IOException If a script cannot be read
+     */
+    public static void bootstrap(Connection connection) throws SQLException, IOException {
+        runScript(connection, schemaScript);
+        if (isEmpty(connection)) {
+            runScript(connection, seedScript);
+            System.out.println("Loaded starter data into embedded database.");
+        }
+    }
+
+    private static boolean isEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM countries")) {
+            rs.next();
+            return rs.getInt(1) == 0;
+        }
+    }
+
+    /**
+     * Runs every statement of a classpath script in one transaction
+     * @param connection Connection to run the script on
+     * @param resource Classpath location of the script
+     * @throws SQLException If a statement fails; the whole script is rolled back
+     * @throws IOException If the script cannot be read
+     */
+    public static void runScript(Connection connection, String resource) throws SQLException, IOException {
+        List<String> statements = readStatements(resource);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Splits a script into statements. Statements end with a semicolon at the end of a line; lines starting
+     * with -- are comments.
+     */
+    private static List<String> readStatements(String resource) throws IOException {
+        InputStream in = SchemaBootstrap.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IOException("Script not found: " + resource);
+        }
+        List<String> statements = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            StringBuilder current = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                if (trimmed.endsWith(";")) {
+                    current.append(trimmed, 0, trimmed.length() - 1);
+                    statements.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(trimmed).append('\n');
+                }
+            }
+            if (current.toString().trim().length() > 0) {
+                statements.add(current.toString());
+            }
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,97 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Versioned schema changes applied at startup. Each migration is a script under /db/migration, run once and
+ * recorded in the schema_version table, so every database ends up with the same indexes no matter which build
+ * first connected to it.
+ * Add new migrations to the end of the list with the next version number; never edit one that has shipped.
+ */
+public abstract class SchemaMigrations {
+
+    /**
+     * One versioned script
+     */
+    private static class Migration {
+        private final int version;
+        private final String description;
+
+        private Migration(int version, String description) {
+            this.version = version;
+            this.description = description;
+        }
+
+        private String script() {
+            return "/db/migration/V" + version + "__" + description + ".sql";
+        }
+    }
+
+    // In order of version
+    private static final Migration[] migrations = {
+            new Migration(1, "query_indexes"),
+            new Migration(2, "appointment_start_index")
+    };
+
+    /**
+     * Applies every migration newer than the version recorded in schema_version
+     * @param connection Connection to migrate
+     * @return Number of migrations applied
+     * @throws SQLException If a migration fails. MySQL commits DDL as it runs, so a failed script may be
+     * partly applied and has to be fixed by hand before startup can continue.
+     * @throws IOException If a migration script cannot be read
+     */
+    public static int migrate(Connection connection) throws SQLException, IOException {
+        createVersionTable(connection);
+        int current = getCurrentVersion(connection);
+        int applied = 0;
+        for (Migration migration : migrations) {
+            if (migration.version <= current) {
+                continue;
+            }
+            long begin = System.currentTimeMillis();
+            SchemaBootstrap.runScript(connection, migration.script());
+            recordVersion(connection, migration);
+            System.out.println("Applied schema migration V" + migration.version + " " + migration.description
+                    + " in " + (System.currentTimeMillis() - begin) + " ms");
+            applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * @param connection Connection to read from
+     * @return Highest applied migration version, 0 if none
+     * @throws SQLException If schema_version cannot be read
+     */
+    public static int getCurrentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT MAX(Version) FROM schema_version")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void createVersionTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "Version INT NOT NULL PRIMARY KEY, "
+                    + "Description VARCHAR(100) NOT NULL, "
+                    + "Installed_On TIMESTAMP NOT NULL)");
+        }
+    }
+
+    private static void recordVersion(Connection connection, Migration migration) throws SQLException {
+        String sql = "INSERT INTO schema_version (Version, Description, Installed_On) VALUES (?, ?, CURRENT_TIMESTAMP)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, migration.version);
+            ps.setString(2, migration.description);
+            ps.executeUpdate();
+        }
+    }
+}
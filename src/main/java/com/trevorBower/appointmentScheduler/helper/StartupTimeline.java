@@ -0,0 +1,38 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Startup milestones, timed from JVM start so class loading and JavaFX launch are included. Each milestone is logged
+ * as it happens, from whichever thread reaches it; summary() lists them all in order.
+ */
+public abstract class StartupTimeline {
+
+    private static final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static final Map<String, Long> milestones = new LinkedHashMap<>();
+
+    /**
+     * Records and logs a milestone
+     * @param milestone What just finished
+     * @return Milliseconds since JVM start
+     */
+    public static synchronized long mark(String milestone) {
+        long elapsed = System.currentTimeMillis() - jvmStartMillis;
+        milestones.put(milestone, elapsed);
+        System.out.printf("Startup +%d ms: %s [%s]%n", elapsed, milestone, Thread.currentThread().getName());
+        return elapsed;
+    }
+
+    /**
+     * @return Every milestone so far with its time since JVM start, one per line
+     */
+    public static synchronized String summary() {
+        StringBuilder summary = new StringBuilder("Startup timeline:");
+        for (Map.Entry<String, Long> entry : milestones.entrySet()) {
+            summary.append(String.format("%n  %6d ms  %s", entry.getValue(), entry.getKey()));
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,214 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text. Statements handed out are
+ * wrappers; closing one closes its open result set, clears its parameters and puts the physical statement back in
+ * the cache instead of closing it, so the next call with the same SQL skips the parse and prepare.
+ */
+class StatementCache {
+
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final int capacity;
+
+    // Prepared statements not currently in use, least recently used first
+    private final LinkedHashMap<String, PreparedStatement> idleStatements;
+    // Statements currently handed out on this connection
+    private final List<CachedStatement> openStatements = new ArrayList<>();
+
+    /**
+     * @param pool Pool collecting hit/miss counts and tracking open statements for leak detection
+     * @param physical Physical connection statements are prepared on
+     * @param capacity Maximum number of idle statements kept per connection (0 disables caching)
+     */
+    StatementCache(ConnectionPool pool, Connection physical, int capacity) {
+        this.pool = pool;
+        this.physical = physical;
+        this.capacity = capacity;
+        this.idleStatements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.capacity) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a prepared statement for the SQL text, reusing a cached one when available
+     * @param borrower Connection wrapper the statement is being prepared through
+     * @param sql SQL text
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS
+     * @return Statement wrapper; close it to return it to the cache
+     * @throws SQLException If statement cannot be prepared
+     */
+    synchronized PreparedStatement prepare(Connection borrower, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? sql + "\u0000keys" : sql;
+        PreparedStatement statement = idleStatements.remove(key);
+        if (statement != null) {
+            pool.recordStatementCacheHit();
+        } else {
+            pool.recordStatementCacheMiss();
+            statement = physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+        CachedStatement cached = new CachedStatement(key, statement, borrower);
+        openStatements.add(cached);
+        pool.trackOpenStatement(cached);
+        return cached.proxy;
+    }
+
+    /**
+     * Returns statements the borrower forgot to close. Called when the connection goes back to the pool.
+     * @return Number of statements that were still open
+     */
+    synchronized int reclaimOpenStatements() {
+        int leaked = openStatements.size();
+        // Copy since closing removes from openStatements
+        for (CachedStatement cached : new ArrayList<>(openStatements)) {
+            cached.returnToCache();
+        }
+        return leaked;
+    }
+
+    /**
+     * Closes every cached statement. Called before the physical connection is closed.
+     */
+    synchronized void closeAll() {
+        for (CachedStatement cached : new ArrayList<>(openStatements)) {
+            cached.returnToCache();
+        }
+        Iterator<PreparedStatement> iterator = idleStatements.values().iterator();
+        while (iterator.hasNext()) {
+            closeQuietly(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private synchronized void release(CachedStatement cached) {
+        openStatements.remove(cached);
+        pool.untrackOpenStatement(cached);
+        try {
+            if (cached.openResultSet != null) {
+                cached.openResultSet.close();
+            }
+            cached.statement.clearParameters();
+            if (capacity > 0 && !cached.broken) {
+                PreparedStatement replaced = idleStatements.put(cached.key, cached.statement);
+                if (replaced != null && replaced != cached.statement) {
+                    closeQuietly(replaced); // Same SQL was prepared twice at once; keep only one
+                }
+                return;
+            }
+        } catch (SQLException e) {
+            // Statement is unusable; fall through and close it
+        }
+        closeQuietly(cached.statement);
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.out.println("Error:" + e.getMessage());
+        }
+    }
+
+    /**
+     * One checkout of a cached statement
+     */
+    class CachedStatement implements InvocationHandler {
+        private final String key;
+        private final PreparedStatement statement;
+        private final Connection borrower;
+        private final PreparedStatement proxy;
+        final long openedMillis = System.currentTimeMillis();
+        final Throwable openedAt;  // Where the statement was prepared, for leak reports
+        volatile boolean leakReported = false;
+        private ResultSet openResultSet;
+        private boolean closed = false;
+        private boolean broken = false;
+
+        private CachedStatement(String key, PreparedStatement statement, Connection borrower) {
+            this.key = key;
+            this.statement = statement;
+            this.borrower = borrower;
+            this.openedAt = pool.isLeakDetectionEnabled() ? new Throwable("Statement prepared here: " + sql()) : null;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        /**
+         * @return SQL text of the statement
+         */
+        String sql() {
+            int separator = key.indexOf('\u0000');
+            return separator < 0 ? key : key.substring(0, separator);
+        }
+
+        private void returnToCache() {
+            if (!closed) {
+                closed = true;
+                release(this);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    returnToCache();
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return borrower;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + sql() + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Statement is closed.");
+                    }
+                    try {
+                        Object result = method.invoke(statement, args);
+                        if (result instanceof ResultSet) {
+                            openResultSet = (ResultSet) result;
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        // Don't put a statement back in the cache after the driver rejected it
+                        if (!(e.getCause() instanceof SQLException) || isConnectionFailure((SQLException) e.getCause())) {
+                            broken = true;
+                        }
+                        throw e.getCause();
+                    }
+            }
+        }
+
+        private boolean isConnectionFailure(SQLException e) {
+            String sqlState = e.getSQLState();
+            return sqlState != null && sqlState.startsWith("08");
+        }
+    }
+}
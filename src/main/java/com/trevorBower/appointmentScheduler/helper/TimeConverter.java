@@ -0,0 +1,223 @@
+package com.trevorBower.appointmentScheduler.helper;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts between UTC and one time zone's local time on epoch-second primitives. ZoneRules are looked up once per
+ * zone, and the offset intervals (spans between two transitions) of the last two conversions are cached, so
+ * conversions inside them are a range check and an addition with no allocation. Two are kept so a list spanning one
+ * DST change does not miss on every row. Only a conversion that lands in another interval, or a local time next to
+ * a gap or overlap, goes back to the zone rules.
+ * Local times are encoded as "local epoch seconds": the epoch second that local date/time would have in UTC.
+ */
+public final class TimeConverter {
+
+    private static final Map<ZoneId, TimeConverter> converters = new ConcurrentHashMap<>();
+    private static final TimeConverter utc = forZone(ZoneOffset.UTC);
+    private static final TimeConverter eastern = forZone(ZoneId.of("America/New_York"));  // Business hours zone
+    private static volatile TimeConverter system = forZone(ZoneId.systemDefault());
+
+    private final ZoneId zoneId;
+    private final ZoneRules rules;
+    private volatile Interval recent;  // Interval of the last miss
+    private volatile Interval older;  // Interval of the miss before that
+
+    /**
+     * Span between two transitions where the zone keeps one offset. Immutable so readers never see it half updated.
+     */
+    private static final class Interval {
+        private final long utcFrom;  // Inclusive
+        private final long utcUntil;  // Exclusive
+        private final int offsetSeconds;
+        private final long localFrom;  // Local times in [localFrom, localUntil) exist once and only in this interval
+        private final long localUntil;
+
+        private Interval(long utcFrom, long utcUntil, int offsetSeconds, long localFrom, long localUntil) {
+            this.utcFrom = utcFrom;
+            this.utcUntil = utcUntil;
+            this.offsetSeconds = offsetSeconds;
+            this.localFrom = localFrom;
+            this.localUntil = localUntil;
+        }
+    }
+
+    private TimeConverter(ZoneId zoneId) {
+        this.zoneId = zoneId;
+        this.rules = zoneId.getRules();
+        this.recent = intervalAt(0);
+        this.older = recent;
+    }
+
+    /**
+     * @param zoneId Time zone
+     * @return Shared converter for the zone
+     */
+    public static TimeConverter forZone(ZoneId zoneId) {
+        return converters.computeIfAbsent(zoneId, TimeConverter::new);
+    }
+
+    /**
+     * @return Converter for UTC
+     */
+    public static TimeConverter utc() {
+        return utc;
+    }
+
+    /**
+     * @return Converter for EST/EDT (America/New_York), the zone business hours are set in
+     */
+    public static TimeConverter eastern() {
+        return eastern;
+    }
+
+    /**
+     * @return Converter for the system default time zone, as read at startup or the last resetSystemZone()
+     */
+    public static TimeConverter system() {
+        return system;
+    }
+
+    /**
+     * Re-reads the system default time zone, for use after TimeZone.setDefault
+     */
+    public static void resetSystemZone() {
+        system = forZone(ZoneId.systemDefault());
+    }
+
+    /**
+     * @return Time zone this converter works in
+     */
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    // Epoch-second conversions
+
+    /**
+     * @param utcEpochSecond Instant in UTC epoch seconds
+     * @return Zone offset at that instant, in seconds
+     */
+    public int getOffsetSeconds(long utcEpochSecond) {
+        Interval interval = recent;
+        if (utcEpochSecond >= interval.utcFrom && utcEpochSecond < interval.utcUntil) {
+            return interval.offsetSeconds;
+        }
+        interval = older;
+        if (utcEpochSecond >= interval.utcFrom && utcEpochSecond < interval.utcUntil) {
+            return interval.offsetSeconds;
+        }
+        return remember(intervalAt(utcEpochSecond)).offsetSeconds;
+    }
+
+    /**
+     * @param utcEpochSecond Instant in UTC epoch seconds
+     * @return Local date/time at that instant, in local epoch seconds
+     */
+    public long toLocal(long utcEpochSecond) {
+        return utcEpochSecond + getOffsetSeconds(utcEpochSecond);
+    }
+
+    /**
+     * Resolves gaps and overlaps the same way LocalDateTime.atZone does: a local time in a gap moves forward by the
+     * length of the gap, and one in an overlap takes the earlier offset.
+     * @param localEpochSecond Local date/time in local epoch seconds
+     * @return Instant in UTC epoch seconds
+     */
+    public long toUtc(long localEpochSecond) {
+        Interval interval = recent;
+        if (localEpochSecond >= interval.localFrom && localEpochSecond < interval.localUntil) {
+            return localEpochSecond - interval.offsetSeconds;
+        }
+        interval = older;
+        if (localEpochSecond >= interval.localFrom && localEpochSecond < interval.localUntil) {
+            return localEpochSecond - interval.offsetSeconds;
+        }
+        // Outside the cached intervals or next to a transition; let the zone rules decide
+        long utcEpochSecond = LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC).atZone(zoneId)
+                .toEpochSecond();
+        remember(intervalAt(utcEpochSecond));
+        return utcEpochSecond;
+    }
+
+    /**
+     * @param localEpochSecond Local date/time in this zone, in local epoch seconds
+     * @param target Zone to convert to
+     * @return Same instant as local date/time in the target zone, in local epoch seconds
+     */
+    public long toZone(long localEpochSecond, TimeConverter target) {
+        return target == this ? localEpochSecond : target.toLocal(toUtc(localEpochSecond));
+    }
+
+    // LocalDateTime conversions (fractions of a second carried through unchanged)
+
+    /**
+     * @param utcDateTime Date/time in UTC
+     * @return Same instant as local date/time in this zone
+     */
+    public LocalDateTime toLocal(LocalDateTime utcDateTime) {
+        return LocalDateTime.ofEpochSecond(toLocal(utcDateTime.toEpochSecond(ZoneOffset.UTC)), utcDateTime.getNano(),
+                ZoneOffset.UTC);
+    }
+
+    /**
+     * @param localDateTime Local date/time in this zone
+     * @return Same instant in UTC
+     */
+    public LocalDateTime toUtc(LocalDateTime localDateTime) {
+        return LocalDateTime.ofEpochSecond(toUtc(localDateTime.toEpochSecond(ZoneOffset.UTC)),
+                localDateTime.getNano(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Makes an interval the most recent, keeping the previous one as the fallback. Racing threads can lose an update,
+     * which only costs a later miss, since every interval is correct on its own.
+     */
+    private Interval remember(Interval interval) {
+        older = recent;
+        recent = interval;
+        return interval;
+    }
+
+    /**
+     * Finds the offset interval containing an instant (allocates; only called on a cache miss)
+     */
+    private Interval intervalAt(long utcEpochSecond) {
+        if (rules.isFixedOffset()) {
+            int offset = rules.getOffset(Instant.EPOCH).getTotalSeconds();
+            return new Interval(Long.MIN_VALUE, Long.MAX_VALUE, offset, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        Instant instant = Instant.ofEpochSecond(utcEpochSecond);
+        int offset = rules.getOffset(instant).getTotalSeconds();
+        // previousTransition is strictly before its argument, so ask one second later to include a transition at
+        // exactly this instant
+        ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+
+        long utcFrom = Long.MIN_VALUE;
+        long localFrom = Long.MIN_VALUE;
+        if (previous != null) {
+            utcFrom = previous.toEpochSecond();
+            // Skip the gap before a spring-forward, or the overlap after a fall-back
+            localFrom = utcFrom + Math.max(offset, previous.getOffsetBefore().getTotalSeconds());
+        }
+        long utcUntil = Long.MAX_VALUE;
+        long localUntil = Long.MAX_VALUE;
+        if (next != null) {
+            utcUntil = next.toEpochSecond();
+            localUntil = utcUntil + Math.min(offset, next.getOffsetAfter().getTotalSeconds());
+        }
+        return new Interval(utcFrom, utcUntil, offset, localFrom, localUntil);
+    }
+
+    @Override
+    public String toString() {
+        return "TimeConverter[" + zoneId + "]";
+    }
+}
@@ -0,0 +1,142 @@
+package com.trevorBower.appointmentScheduler.model;
+
+import com.trevorBower.appointmentScheduler.helper.TimeConverter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * One row of the appointments table joined with its contact name. Immutable.
+ * IDs are kept as ints and start/end as UTC epoch seconds; type and contact name repeat across many rows, so they
+ * are interned and every row shares one copy.
+ */
+public final class Appointment {
+
+    private final int appointmentId;
+    private final String title;
+    private final String description;
+    private final String location;
+    private final String type;
+    private final long startEpochSecond;  // UTC
+    private final long endEpochSecond;  // UTC
+    private final int customerId;
+    private final int userId;
+    private final int contactId;
+    private final String contactName;
+
+    /**
+     * @param appointmentId Appointment ID
+     * @param title Appointment title
+     * @param description Appointment description
+     * @param location Appointment location
+     * @param type Appointment type
+     * @param startUtc Start date/time in UTC
+     * @param endUtc End date/time in UTC
+     * @param customerId Customer ID
+     * @param userId User ID
+     * @param contactId Contact ID
+     * @param contactName Contact name
+     */
+    public Appointment(int appointmentId, String title, String description, String location, String type,
+                       LocalDateTime startUtc, LocalDateTime endUtc, int customerId, int userId, int contactId,
+                       String contactName) {
+        this.appointmentId = appointmentId;
+        this.title = title;
+        this.description = description;
+        this.location = location;
+        this.type = intern(type);
+        this.startEpochSecond = startUtc.toEpochSecond(ZoneOffset.UTC);
+        this.endEpochSecond = endUtc.toEpochSecond(ZoneOffset.UTC);
+        this.customerId = customerId;
+        this.userId = userId;
+        this.contactId = contactId;
+        this.contactName = intern(contactName);
+    }
+
+    static String intern(String value) {
+        return value == null ? null : value.intern();
+    }
+
+    public int getAppointmentId() {
+        return appointmentId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return Start in UTC epoch seconds
+     */
+    public long getStartEpochSecond() {
+        return startEpochSecond;
+    }
+
+    /**
+     * @return End in UTC epoch seconds
+     */
+    public long getEndEpochSecond() {
+        return endEpochSecond;
+    }
+
+    /**
+     * @return Start date/time in UTC
+     */
+    public LocalDateTime getStartUtc() {
+        return LocalDateTime.ofEpochSecond(startEpochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return End date/time in UTC
+     */
+    public LocalDateTime getEndUtc() {
+        return LocalDateTime.ofEpochSecond(endEpochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return Start date/time in system default time
+     */
+    public LocalDateTime getStartSystem() {
+        return LocalDateTime.ofEpochSecond(TimeConverter.system().toLocal(startEpochSecond), 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return End date/time in system default time
+     */
+    public LocalDateTime getEndSystem() {
+        return LocalDateTime.ofEpochSecond(TimeConverter.system().toLocal(endEpochSecond), 0, ZoneOffset.UTC);
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getContactId() {
+        return contactId;
+    }
+
+    public String getContactName() {
+        return contactName;
+    }
+
+    @Override
+    public String toString() {
+        return "Appointment[" + appointmentId + ", " + type + ", " + getStartUtc() + " UTC]";
+    }
+}
@@ -0,0 +1,69 @@
+package com.trevorBower.appointmentScheduler.model;
+
+/**
+ * One row of the customers table joined with its state/province name. Immutable; the division name is interned
+ * since only a few dozen exist.
+ */
+public final class Customer {
+
+    private final int customerId;
+    private final String customerName;
+    private final String address;
+    private final String postalCode;
+    private final String phone;
+    private final int divisionId;
+    private final String division;
+
+    /**
+     * @param customerId Customer ID
+     * @param customerName Customer name
+     * @param address Customer address
+     * @param postalCode Customer postal code
+     * @param phone Customer phone number
+     * @param divisionId Division ID of customer
+     * @param division State/province name
+     */
+    public Customer(int customerId, String customerName, String address, String postalCode, String phone,
+                    int divisionId, String division) {
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.address = address;
+        this.postalCode = postalCode;
+        this.phone = phone;
+        this.divisionId = divisionId;
+        this.division = Appointment.intern(division);
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getPostalCode() {
+        return postalCode;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public int getDivisionId() {
+        return divisionId;
+    }
+
+    public String getDivision() {
+        return division;
+    }
+
+    @Override
+    public String toString() {
+        return "Customer[" + customerId + ", " + customerName + "]";
+    }
+}
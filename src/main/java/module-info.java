@@ -2,6 +2,7 @@ module com.example.software2project {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.sql;
+    requires java.management;
 
     exports com.trevorBower.appointmentScheduler;
     exports com.trevorBower.appointmentScheduler.controller;
@@ -0,0 +1,16 @@
+-- Indexes behind the hot lookups. Index names are unique across tables since H2 scopes them to the schema.
+
+-- Overlap checks: Customer_ID = ? with Start/End ranges
+CREATE INDEX idx_appointments_customer_start_end ON appointments (Customer_ID, Start, End);
+
+-- getAppointmentsByUserId and the login upcoming-appointment alert
+CREATE INDEX idx_appointments_user_start ON appointments (User_ID, Start);
+
+-- Contact schedule report
+CREATE INDEX idx_appointments_contact_start ON appointments (Contact_ID, Start);
+
+-- Name lookups from the customer and appointment forms
+CREATE INDEX idx_divisions_division ON first_level_divisions (Division);
+CREATE INDEX idx_countries_country ON countries (Country);
+CREATE INDEX idx_contacts_contact_name ON contacts (Contact_Name);
+CREATE INDEX idx_users_user_name ON users (User_Name);
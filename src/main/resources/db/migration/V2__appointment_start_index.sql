@@ -0,0 +1,2 @@
+-- Current week/month views: Start >= ? AND Start < ? across all customers and users
+CREATE INDEX idx_appointments_start ON appointments (Start);